@@ -21,12 +21,15 @@ import static com.gooddata.util.Validate.notNull;
 public abstract class AbstractPollHandlerBase<P, R> implements PollHandler<P, R> {
     protected final Class<P> pollClass;
     protected final Class<R> resultClass;
-    private boolean done = false;
-    private R result;
+    private volatile boolean done = false;
+    private volatile boolean cancelled = false;
+    private final boolean defaultIsFinished;
+    private volatile R result;
 
     protected AbstractPollHandlerBase(Class<P> pollClass, Class<R> resultClass) {
         this.pollClass = notNull(pollClass, "pollClass");
         this.resultClass = notNull(resultClass, "resultClass");
+        this.defaultIsFinished = !isFinishedOverridden();
     }
 
     @Override
@@ -40,8 +43,13 @@ public abstract class AbstractPollHandlerBase<P, R> implements PollHandler<P, R>
     }
 
     protected PollHandler<P, R> setResult(R result) {
-        this.result = result;
-        this.done = true;
+        synchronized (this) {
+            if (cancelled) {
+                return this;
+            }
+            this.result = result;
+            this.done = true;
+        }
         onFinish();
         return this;
     }
@@ -51,6 +59,23 @@ public abstract class AbstractPollHandlerBase<P, R> implements PollHandler<P, R>
         return done;
     }
 
+    @Override
+    public final boolean cancel() {
+        synchronized (this) {
+            if (done || cancelled) {
+                return false;
+            }
+            cancelled = true;
+        }
+        onCancel();
+        return true;
+    }
+
+    @Override
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+
     @Override
     public final R getResult() {
         return result;
@@ -61,9 +86,35 @@ public abstract class AbstractPollHandlerBase<P, R> implements PollHandler<P, R>
         return HttpStatus.OK.equals(response.getStatusCode());
     }
 
+    /**
+     * Returns true unless {@link #isFinished(ClientHttpResponse)} is overridden. Subclasses overriding
+     * {@code isFinished} without reading the response body should override this method too and return true.
+     *
+     * @return true if the response body isn't read by {@link #isFinished(ClientHttpResponse)}
+     */
+    @Override
+    public boolean isStatusOnly() {
+        return defaultIsFinished;
+    }
+
     /**
      * Method called after polling is successfully finished (default no-op)
      */
     protected void onFinish() {
     }
+
+    /**
+     * Method called after polling is cancelled, should release resources allocated for the task (default no-op)
+     */
+    protected void onCancel() {
+    }
+
+    private boolean isFinishedOverridden() {
+        try {
+            return !AbstractPollHandlerBase.class.equals(
+                    getClass().getMethod("isFinished", ClientHttpResponse.class).getDeclaringClass());
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
 }
@@ -3,15 +3,27 @@
  */
 package com.gooddata;
 
+import static com.gooddata.collections.PageableList.PAGING_NODE;
 import static com.gooddata.util.Validate.notNull;
 import static java.lang.String.format;
+import static org.springframework.util.Assert.isTrue;
 import static org.springframework.http.HttpMethod.GET;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gooddata.collections.Page;
+import com.gooddata.collections.PageLoader;
+import com.gooddata.collections.PageableIterable;
+import com.gooddata.collections.PageableList;
+import com.gooddata.collections.Paging;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.web.client.HttpMessageConverterExtractor;
 import org.springframework.web.client.RequestCallback;
@@ -22,6 +34,11 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 
@@ -34,7 +51,13 @@ public abstract class AbstractService {
 
     protected final RestTemplate restTemplate;
 
-    protected final ObjectMapper mapper = new ObjectMapper();
+    private final PollScheduler pollScheduler;
+
+    /**
+     * Mapper of the JSON message converter used by the {@link #restTemplate} (so the serializers are shared),
+     * a new one when the template has no such converter.
+     */
+    protected final ObjectMapper mapper;
 
     protected final RequestCallback noopRequestCallback = new RequestCallback() {
         @Override
@@ -42,13 +65,6 @@ public abstract class AbstractService {
         }
     };
 
-    private final ResponseExtractor<ClientHttpResponse> reusableResponseExtractor = new ResponseExtractor<ClientHttpResponse>() {
-        @Override
-        public ClientHttpResponse extractData(final ClientHttpResponse response) throws IOException {
-            return new ReusableClientHttpResponse(response);
-        }
-    };
-
 
     /**
      * Sets RESTful HTTP Spring template. Should be called from constructor of concrete service extending
@@ -57,13 +73,31 @@ public abstract class AbstractService {
      * @param restTemplate RESTful HTTP Spring template
      */
     public AbstractService(RestTemplate restTemplate) {
+        this(restTemplate, new PollScheduler(new GoodDataSettings()));
+    }
+
+    /**
+     * Sets RESTful HTTP Spring template and scheduler used for asynchronous polling. Should be called from constructor
+     * of concrete service extending this abstract one.
+     *
+     * @param restTemplate RESTful HTTP Spring template
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public AbstractService(RestTemplate restTemplate, PollScheduler pollScheduler) {
         this.restTemplate = notNull(restTemplate, "restTemplate");
+        this.pollScheduler = notNull(pollScheduler, "pollScheduler");
+        this.mapper = getObjectMapper(restTemplate);
     }
 
     final <R> R poll(final PollHandler<?,R> handler, long timeout, final TimeUnit unit) {
         notNull(handler, "handler");
+        final PollingPolicy policy = pollScheduler.getPollingPolicy(getClass());
         final long start = System.currentTimeMillis();
+        int attempt = 0;
         while (true) {
+            if (handler.isCancelled()) {
+                throw new GoodDataException("Polling on " + handler.getPollingUri() + " cancelled");
+            }
             if (pollOnce(handler)) {
                 return handler.getResult();
             }
@@ -72,34 +106,91 @@ public abstract class AbstractService {
             }
 
             try {
-                Thread.sleep(WAIT_BEFORE_RETRY_IN_MILLIS);
+                Thread.sleep(policy.getDelay(++attempt));
             } catch (InterruptedException e) {
-                throw new GoodDataException("interrupted");
+                Thread.currentThread().interrupt();
+                throw new GoodDataException("interrupted", e);
             }
         }
     }
 
+    final <R> AsyncResult<R> pollAsync(final PollHandler<?,R> handler) {
+        return pollScheduler.schedule(this, handler);
+    }
+
+    /**
+     * Runs the initiating request of a long running task in the background and polls the started task
+     * asynchronously. Intended for the {@code *Async} variants of the methods returning {@link FutureResult}.
+     *
+     * @param initiator initiates the task, typically by calling the blocking variant of the method
+     * @param <R> result type
+     * @return result completed when the task finishes
+     */
+    protected final <R> AsyncResult<R> executeAsync(final Callable<? extends FutureResult<R>> initiator) {
+        return pollScheduler.execute(initiator);
+    }
+
+    /**
+     * Creates lazy view of all pages of a paged collection, prefetching the pages in the background.
+     *
+     * @param loader    loads the pages
+     * @param startPage first page to load, null for the first page with the default paging
+     * @param <E> collection element type
+     * @return view of all pages
+     */
+    protected final <E> PageableIterable<E> allPages(final PageLoader<E> loader, final Page startPage) {
+        return new PageableIterable<>(loader, startPage, pollScheduler.getAsyncExecutor());
+    }
+
+    /**
+     * Reads the collection items from the response of GET on the given URI one by one, handing each of them over
+     * to the callback as soon as it's deserialized. The items array is found by the given path of field names
+     * (e.g. {@code "query", "entries"} for {@code {"query": {"entries": [...]}}}), the paging found next to it
+     * is returned.
+     *
+     * @param uri      URI of the collection
+     * @param type     item type
+     * @param callback receives the items
+     * @param path     field names leading to the items array
+     * @param <E> item type
+     * @return paging of the collection, null when there is none
+     * @throws GoodDataException when the response doesn't contain the items array
+     */
+    protected final <E> Paging streamItems(final URI uri, final Class<E> type, final ItemCallback<? super E> callback,
+                                           final String... path) {
+        notNull(uri, "uri");
+        notNull(type, "type");
+        notNull(callback, "callback");
+        isTrue(path.length > 0, "path must not be empty");
+        return restTemplate.execute(uri, GET, noopRequestCallback, new ItemsResponseExtractor<>(type, callback, path));
+    }
+
+    /**
+     * Executor of background requests, either {@link GoodDataSettings#getAsyncExecutor()} or the internal pool.
+     * Tasks may be rejected when the executor is shut down, callers should run them in the calling thread then.
+     *
+     * @return executor of background requests
+     */
+    protected final Executor getAsyncExecutor() {
+        return pollScheduler.getAsyncExecutor();
+    }
+
     final <P> boolean pollOnce(final PollHandler<P,?> handler) {
         notNull(handler, "handler");
-        final ClientHttpResponse response;
+        if (handler.isCancelled()) {
+            return false;
+        }
+        final PollResponse<P> pollResponse;
         try {
-            response = restTemplate.execute(handler.getPollingUri(), GET, noopRequestCallback, reusableResponseExtractor);
+            pollResponse = restTemplate.execute(handler.getPollingUri(), GET, noopRequestCallback,
+                    new PollResponseExtractor<>(handler));
         } catch (GoodDataRestException e) {
             handler.handlePollException(e);
             throw new GoodDataException("Handler " + handler.getClass().getName() + " didn't handle exception", e);
         }
 
-        try {
-            if (handler.isFinished(response)) {
-                final P data = extractData(response, handler.getPollClass());
-                handler.handlePollResult(data);
-            } else if (HttpStatus.Series.CLIENT_ERROR.equals(response.getStatusCode().series())) {
-                throw new GoodDataException(
-                        format("Polling returned client error HTTP status %s", response.getStatusCode().value())
-                );
-            }
-        } catch (IOException e) {
-            throw new GoodDataException("I/O error occurred during HTTP response extraction", e);
+        if (pollResponse.finished) {
+            handler.handlePollResult(pollResponse.data);
         }
         return handler.isDone();
     }
@@ -113,6 +204,60 @@ public abstract class AbstractService {
         return new HttpMessageConverterExtractor<>(cls, restTemplate.getMessageConverters()).extractData(response);
     }
 
+    /**
+     * Evaluates the polling response while it's still open, so the body needn't be buffered unless
+     * the handler reads it in {@link PollHandler#isFinished(ClientHttpResponse)}.
+     */
+    private class PollResponseExtractor<P> implements ResponseExtractor<PollResponse<P>> {
+
+        private final PollHandler<P, ?> handler;
+
+        private PollResponseExtractor(final PollHandler<P, ?> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public PollResponse<P> extractData(final ClientHttpResponse clientResponse) {
+            try {
+                final ClientHttpResponse response = handler.isStatusOnly()
+                        ? clientResponse : new ReusableClientHttpResponse(clientResponse);
+                if (handler.isFinished(response)) {
+                    return new PollResponse<>(true, AbstractService.this.extractData(response, handler.getPollClass()));
+                } else if (HttpStatus.Series.CLIENT_ERROR.equals(response.getStatusCode().series())) {
+                    throw new GoodDataException(
+                            format("Polling returned client error HTTP status %s", response.getStatusCode().value())
+                    );
+                }
+                return new PollResponse<>(false, null);
+            } catch (IOException e) {
+                throw new GoodDataException("I/O error occurred during HTTP response extraction", e);
+            }
+        }
+    }
+
+    private static class PollResponse<P> {
+
+        private final boolean finished;
+        private final P data;
+
+        private PollResponse(final boolean finished, final P data) {
+            this.finished = finished;
+            this.data = data;
+        }
+    }
+
+    private static ObjectMapper getObjectMapper(final RestTemplate restTemplate) {
+        final List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+        if (converters != null) {
+            for (HttpMessageConverter<?> converter : converters) {
+                if (converter instanceof MappingJackson2HttpMessageConverter) {
+                    return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+                }
+            }
+        }
+        return new ObjectMapper();
+    }
+
     private static class ReusableClientHttpResponse implements ClientHttpResponse {
 
         private byte[] body;
@@ -171,6 +316,78 @@ public abstract class AbstractService {
         }
     }
 
+    /**
+     * Streams the items array found by the path of field names to the callback, skipping everything else.
+     */
+    private class ItemsResponseExtractor<E> implements ResponseExtractor<Paging> {
+
+        private final ObjectReader reader;
+        private final ItemCallback<? super E> callback;
+        private final String[] path;
+        private boolean itemsFound;
+
+        private ItemsResponseExtractor(final Class<E> type, final ItemCallback<? super E> callback,
+                                       final String[] path) {
+            this.reader = mapper.readerFor(type);
+            this.callback = callback;
+            this.path = path;
+        }
+
+        @Override
+        public Paging extractData(final ClientHttpResponse response) throws IOException {
+            try (final JsonParser parser = mapper.getFactory().createParser(response.getBody())) {
+                final Paging paging = readObject(parser, parser.nextToken(), 0);
+                if (!itemsFound) {
+                    throw new GoodDataException("Response doesn't contain " + Arrays.toString(path));
+                }
+                return paging;
+            }
+        }
+
+        private Paging readObject(final JsonParser parser, final JsonToken start, final int depth) throws IOException {
+            if (start != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return null;
+            }
+            Paging paging = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (path[depth].equals(field)) {
+                    if (depth == path.length - 1) {
+                        readItems(parser, token);
+                    } else {
+                        paging = readObject(parser, token, depth + 1);
+                    }
+                } else if (depth == path.length - 1 && PAGING_NODE.equals(field)
+                        && token == JsonToken.START_OBJECT) {
+                    paging = mapper.readValue(parser, Paging.class);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return paging;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readItems(final JsonParser parser, final JsonToken start) throws IOException {
+            if (start == JsonToken.VALUE_NULL) {
+                itemsFound = true;
+                return;
+            }
+            if (start != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return;
+            }
+            itemsFound = true;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token != JsonToken.VALUE_NULL) {
+                    callback.onItem((E) reader.readValue(parser));
+                }
+            }
+        }
+    }
+
     protected static class OutputStreamResponseExtractor implements ResponseExtractor<Integer> {
         private final OutputStream output;
 
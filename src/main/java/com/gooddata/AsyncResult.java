@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Represents the result of a task processed asynchronously by the SDK (for example polling done by
+ * {@link PollScheduler}). The result can be either waited for using {@link Future} methods or consumed by
+ * a {@link ResultCallback} without blocking any thread.
+ * <p>
+ * Failures are always reported as {@link GoodDataException} (wrapped in {@link ExecutionException} when using
+ * the {@link Future} methods). Cancellation is reported to the callbacks as {@link GoodDataException} too.
+ *
+ * @param <T> result type
+ */
+public class AsyncResult<T> implements Future<T> {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    private final List<ResultCallback<? super T>> callbacks = new ArrayList<>();
+
+    private boolean completed = false;
+
+    private boolean cancelled = false;
+
+    private T result;
+
+    private GoodDataException failure;
+
+    /**
+     * Registers callback to be notified when the result is available. When the result is already available
+     * the callback is notified immediately in the calling thread, otherwise it is notified in the thread completing
+     * the task.
+     *
+     * @param callback callback to notify
+     */
+    public void addCallback(final ResultCallback<? super T> callback) {
+        notNull(callback, "callback");
+        synchronized (this) {
+            if (!completed) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        notifyCallback(callback);
+    }
+
+    /**
+     * Cancels the task, the task is stopped and its resources released (see {@link #onCancel()}).
+     *
+     * @param mayInterruptIfRunning ignored, running request is never interrupted
+     * @return true if the task was cancelled by this call, false if it was already completed
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return complete(null, new GoodDataException("Task cancelled"), true);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return completed;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return report();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        notNull(unit, "unit");
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException("Result not available within " + timeout + " " + unit);
+        }
+        return report();
+    }
+
+    /**
+     * Called when the result is cancelled before completion to stop the task (default no-op).
+     */
+    protected void onCancel() {
+    }
+
+    /**
+     * Completes this result successfully.
+     *
+     * @param result result value
+     * @return true if this call completed the result, false if it was already completed
+     */
+    boolean complete(final T result) {
+        return complete(result, null, false);
+    }
+
+    /**
+     * Completes this result with the failure.
+     *
+     * @param failure the failure
+     * @return true if this call completed the result, false if it was already completed
+     */
+    boolean fail(final GoodDataException failure) {
+        return complete(null, notNull(failure, "failure"), false);
+    }
+
+    private boolean complete(final T result, final GoodDataException failure, final boolean cancel) {
+        final List<ResultCallback<? super T>> toNotify;
+        synchronized (this) {
+            if (completed) {
+                return false;
+            }
+            this.result = result;
+            this.failure = failure;
+            this.cancelled = cancel;
+            this.completed = true;
+            toNotify = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        latch.countDown();
+        try {
+            if (cancel) {
+                onCancel();
+            }
+        } finally {
+            for (ResultCallback<? super T> callback : toNotify) {
+                notifyCallback(callback);
+            }
+        }
+        return true;
+    }
+
+    private void notifyCallback(final ResultCallback<? super T> callback) {
+        final T result;
+        final GoodDataException failure;
+        synchronized (this) {
+            result = this.result;
+            failure = this.failure;
+        }
+        try {
+            if (failure == null) {
+                callback.onSuccess(result);
+            } else {
+                callback.onFailure(failure);
+            }
+        } catch (RuntimeException ignored) {
+            // a misbehaving callback must not prevent notification of the others
+        }
+    }
+
+    private synchronized T report() throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException("Task cancelled");
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return result;
+    }
+}
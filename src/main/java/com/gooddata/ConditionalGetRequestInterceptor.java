@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Intercepts client-side HTTP requests and revalidates the GET requests of the resources read repeatedly
+ * (metadata objects, projects, the API root and dataset manifests) by conditional requests.
+ * <p>
+ * The successful responses carrying {@code ETag} or {@code Last-Modified} validators are stored (up to the given
+ * number, least recently used ones are dropped) and the next GET of the same URI sends {@code If-None-Match}
+ * and {@code If-Modified-Since} headers. When the API answers {@code 304 Not Modified}, the stored response is
+ * returned instead, so the body is neither serialized by the server nor transferred again. Any other request
+ * to the same URI (PUT, POST, DELETE) drops the stored response.
+ */
+class ConditionalGetRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    static final Collection<Pattern> CACHEABLE_PATHS = Arrays.asList(
+            Pattern.compile("/gdc"),
+            Pattern.compile("/gdc/projects/[^/]+"),
+            Pattern.compile("/gdc/md/[^/]+/obj/[^/]+"),
+            Pattern.compile("/gdc/md/[^/]+/ldm/singleloadinterface/[^/]+/manifest")
+    );
+
+    private final Map<String, StoredResponse> responses;
+
+    /**
+     * Construct interceptor storing up to the given number of responses.
+     *
+     * @param maxSize maximum number of stored responses
+     */
+    public ConditionalGetRequestInterceptor(final int maxSize) {
+        isTrue(maxSize > 0, "maxSize must be greater than zero");
+        this.responses = new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+                                        final ClientHttpRequestExecution execution) throws IOException {
+        final String key = request.getURI().toString();
+        if (request.getMethod() != HttpMethod.GET) {
+            remove(key);
+            return execution.execute(request, body);
+        }
+        if (!isCacheable(request)) {
+            return execution.execute(request, body);
+        }
+
+        final StoredResponse stored = get(key);
+        final HttpRequestWrapper requestWrapper = new HttpRequestWrapper(request);
+        if (stored != null) {
+            if (stored.headers.getETag() != null) {
+                requestWrapper.getHeaders().setIfNoneMatch(stored.headers.getETag());
+            }
+            if (stored.headers.getLastModified() != -1) {
+                requestWrapper.getHeaders().setIfModifiedSince(stored.headers.getLastModified());
+            }
+        }
+
+        final ClientHttpResponse response = execution.execute(requestWrapper, body);
+        if (stored != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            response.close();
+            return new StoredResponse(stored);
+        }
+        if (response.getStatusCode() == HttpStatus.OK
+                && (response.getHeaders().getETag() != null || response.getHeaders().getLastModified() != -1)) {
+            final StoredResponse fresh;
+            try {
+                fresh = new StoredResponse(response.getStatusCode(), response.getStatusText(), response.getHeaders(),
+                        FileCopyUtils.copyToByteArray(response.getBody()));
+            } finally {
+                response.close();
+            }
+            put(key, fresh);
+            return new StoredResponse(fresh);
+        }
+        remove(key);
+        return response;
+    }
+
+    private static boolean isCacheable(final HttpRequest request) {
+        final String path = request.getURI().getPath();
+        if (path == null || request.getURI().getQuery() != null) {
+            return false;
+        }
+        for (Pattern pattern : CACHEABLE_PATHS) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private StoredResponse get(final String key) {
+        synchronized (responses) {
+            return responses.get(key);
+        }
+    }
+
+    private void put(final String key, final StoredResponse response) {
+        synchronized (responses) {
+            responses.put(key, response);
+        }
+    }
+
+    private void remove(final String key) {
+        synchronized (responses) {
+            responses.remove(key);
+        }
+    }
+
+    /**
+     * Fully read response, each returned instance serves its own copy of the headers.
+     */
+    private static class StoredResponse implements ClientHttpResponse {
+
+        private final HttpStatus status;
+        private final String statusText;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private StoredResponse(final HttpStatus status, final String statusText, final HttpHeaders headers,
+                               final byte[] body) {
+            this.status = status;
+            this.statusText = statusText;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(headers);
+            this.body = body;
+        }
+
+        private StoredResponse(final StoredResponse stored) {
+            this(stored.status, stored.statusText, stored.headers, stored.body);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return status.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
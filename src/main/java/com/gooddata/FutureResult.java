@@ -11,7 +11,7 @@ import java.util.concurrent.TimeUnit;
 public interface FutureResult<T> {
 
     /**
-     * Checks if the result is available
+     * Checks if the result is available (or the waiting for it was cancelled)
      *
      * @return true if so
      * @throws GoodDataException when polling fails or the thread was interrupted
@@ -36,6 +36,31 @@ public interface FutureResult<T> {
      */
     T get(final long timeout, final TimeUnit unit);
 
+    /**
+     * Continue waiting for the result asynchronously without blocking the calling thread. The polling is driven by
+     * the shared {@link PollScheduler} of the service, the returned {@link AsyncResult} is completed once
+     * the result is available. Repeated calls return the same {@link AsyncResult}.
+     *
+     * @return asynchronously completed result
+     */
+    AsyncResult<T> pollAsync();
+
+    /**
+     * Cancel waiting for the result. Polling is stopped (also when done by {@link #pollAsync()}) and resources
+     * allocated for the task are released (e.g. staging directory of dataset load). Subsequent {@link #get()} calls
+     * fail with {@link GoodDataException}. Note the task itself may continue on the server.
+     *
+     * @return true if the polling was cancelled by this call, false if it was already finished or cancelled
+     */
+    boolean cancel();
+
+    /**
+     * Checks if waiting for the result was cancelled
+     *
+     * @return true if so
+     */
+    boolean isCancelled();
+
     /**
      * Get URI used for polling
      *
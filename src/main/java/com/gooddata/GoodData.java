@@ -9,6 +9,7 @@ import com.gooddata.dataload.processes.ProcessService;
 import com.gooddata.featureflag.FeatureFlagService;
 import com.gooddata.md.maintenance.ExportImportService;
 import com.gooddata.notification.NotificationService;
+import com.gooddata.util.CachingJackson2HttpMessageConverter;
 import com.gooddata.util.ResponseErrorHandler;
 import com.gooddata.warehouse.WarehouseService;
 import com.gooddata.dataset.DatasetService;
@@ -17,10 +18,12 @@ import com.gooddata.gdc.GdcService;
 import com.gooddata.http.client.GoodDataHttpClient;
 import com.gooddata.http.client.LoginSSTRetrievalStrategy;
 import com.gooddata.http.client.SSTRetrievalStrategy;
+import com.gooddata.md.MetadataCache;
 import com.gooddata.md.MetadataService;
 import com.gooddata.model.ModelService;
 import com.gooddata.project.ProjectService;
 import com.gooddata.report.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpHost;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
@@ -30,9 +33,13 @@ import org.apache.http.util.VersionInfo;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.gooddata.util.Validate.notEmpty;
 import static java.util.Collections.singletonMap;
@@ -64,6 +71,7 @@ public class GoodData {
 
     private final RestTemplate restTemplate;
     private final HttpClient httpClient;
+    private final PollScheduler pollScheduler;
     private final AccountService accountService;
     private final ProjectService projectService;
     private final MetadataService metadataService;
@@ -174,31 +182,48 @@ public class GoodData {
         httpClient = createHttpClient(login, password, hostname, port, protocol,
                 createHttpClientBuilder(settings));
 
-        restTemplate = createRestTemplate(hostname, httpClient, port, protocol);
+        restTemplate = createRestTemplate(hostname, httpClient, port, protocol, settings);
+        pollScheduler = new PollScheduler(settings);
 
         accountService = new AccountService(getRestTemplate());
-        projectService = new ProjectService(getRestTemplate(), accountService);
-        metadataService = new MetadataService(getRestTemplate());
-        modelService = new ModelService(getRestTemplate());
+        projectService = new ProjectService(getRestTemplate(), accountService, getPollScheduler());
+        metadataService = new MetadataService(getRestTemplate(), new MetadataCache(settings.getMetadataCacheSize(),
+                settings.getMetadataCacheTtl(), TimeUnit.MILLISECONDS), getPollScheduler());
+        modelService = new ModelService(getRestTemplate(), getPollScheduler());
         gdcService = new GdcService(getRestTemplate());
         dataStoreService = new DataStoreService(getHttpClient(), getRestTemplate(), gdcService, new HttpHost(hostname, port, protocol).toURI());
-        datasetService = new DatasetService(getRestTemplate(), dataStoreService);
-        reportService = new ReportService(getRestTemplate());
-        processService = new ProcessService(getRestTemplate(), accountService, dataStoreService);
-        warehouseService = new WarehouseService(getRestTemplate());
-        connectorService = new ConnectorService(getRestTemplate(), projectService);
+        datasetService = new DatasetService(getRestTemplate(), dataStoreService, getPollScheduler(),
+                settings.getUploadThreads());
+        reportService = new ReportService(getRestTemplate(), getPollScheduler());
+        processService = new ProcessService(getRestTemplate(), accountService, dataStoreService, getPollScheduler());
+        warehouseService = new WarehouseService(getRestTemplate(), getPollScheduler());
+        connectorService = new ConnectorService(getRestTemplate(), projectService, getPollScheduler());
         notificationService = new NotificationService(getRestTemplate());
-        exportImportService = new ExportImportService(getRestTemplate());
+        exportImportService = new ExportImportService(getRestTemplate(), getPollScheduler());
         featureFlagService = new FeatureFlagService(restTemplate);
     }
 
-    private RestTemplate createRestTemplate(String hostname, HttpClient httpClient, int port, String protocol) {
+    private RestTemplate createRestTemplate(String hostname, HttpClient httpClient, int port, String protocol,
+                                            GoodDataSettings settings) {
 
         final UriPrefixingClientHttpRequestFactory factory = new UriPrefixingClientHttpRequestFactory(
                 new HttpComponentsClientHttpRequestFactory(httpClient), hostname, port, protocol);
         final RestTemplate restTemplate = new RestTemplate(factory);
-        restTemplate.setInterceptors(Arrays.<ClientHttpRequestInterceptor>asList(
-                new HeaderSettingRequestInterceptor(singletonMap("Accept", getAcceptHeaderValue()))));
+        final List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(new HeaderSettingRequestInterceptor(singletonMap("Accept", getAcceptHeaderValue())));
+        if (settings.getConditionalGetCacheSize() > 0) {
+            interceptors.add(new ConditionalGetRequestInterceptor(settings.getConditionalGetCacheSize()));
+        }
+        restTemplate.setInterceptors(interceptors);
+
+        // single mapper shared by the converter, error handler and all services (see AbstractService#mapper)
+        final List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+        final CachingJackson2HttpMessageConverter jsonConverter = new CachingJackson2HttpMessageConverter(new ObjectMapper());
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                converters.set(i, jsonConverter);
+            }
+        }
 
         restTemplate.setErrorHandler(new ResponseErrorHandler(restTemplate.getMessageConverters()));
 
@@ -268,6 +293,15 @@ public class GoodData {
         return httpClient;
     }
 
+    /**
+     * Get the {@link PollScheduler} shared by all services of this instance.
+     * This is the extension point for inheriting classes providing additional services.
+     * @return poll scheduler
+     */
+    protected final PollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
     /**
      * Logout from GoodData Platform
      */
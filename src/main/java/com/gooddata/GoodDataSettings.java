@@ -1,7 +1,12 @@
 package com.gooddata;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import static com.gooddata.util.Validate.notNull;
 import static org.springframework.util.Assert.isTrue;
 
 /**
@@ -17,6 +22,14 @@ public class GoodDataSettings {
     private int connectionTimeout = secondsToMillis(10);
     private int connectionRequestTimeout = secondsToMillis(10);
     private int socketTimeout = secondsToMillis(60);
+    private int pollingThreads = 4;
+    private PollingPolicy pollingPolicy = PollingPolicy.DEFAULT;
+    private final Map<Class<? extends AbstractService>, PollingPolicy> servicePollingPolicies = new HashMap<>();
+    private Executor asyncExecutor;
+    private int metadataCacheSize = 0;
+    private int metadataCacheTtl = secondsToMillis(300);
+    private int conditionalGetCacheSize = 0;
+    private int uploadThreads = 4;
 
 
     /**
@@ -150,6 +163,207 @@ public class GoodDataSettings {
         return socketTimeout;
     }
 
+    /**
+     * Set maximum number of threads used by the shared {@link PollScheduler} to drive asynchronous polling
+     * (see {@link FutureResult#pollAsync()}). Threads are occupied only during the individual polling requests so
+     * even a few threads are able to serve large number of pending tasks.
+     * <p>
+     * The default value is 4.
+     *
+     * @param pollingThreads maximum number of polling threads
+     */
+    public void setPollingThreads(int pollingThreads) {
+        isTrue(pollingThreads > 0, "pollingThreads must be greater than zero");
+        this.pollingThreads = pollingThreads;
+    }
+
+    /**
+     * Maximum number of threads used for asynchronous polling
+     *
+     * @return maximum number of threads used for asynchronous polling
+     */
+    public int getPollingThreads() {
+        return pollingThreads;
+    }
+
+    /**
+     * Set policy defining delays between polls on the status of long running tasks.
+     * <p>
+     * The default value is {@link PollingPolicy#DEFAULT} (every 5 seconds).
+     *
+     * @param pollingPolicy polling policy
+     * @see #setPollingPolicy(Class, PollingPolicy)
+     */
+    public void setPollingPolicy(PollingPolicy pollingPolicy) {
+        this.pollingPolicy = notNull(pollingPolicy, "pollingPolicy");
+    }
+
+    /**
+     * Set policy used for tasks of the given service instead of the default one, e.g. fast polling for report
+     * exports of {@link com.gooddata.report.ReportService} and slow polling for process executions of
+     * {@link com.gooddata.dataload.processes.ProcessService}. The policy applies also to subclasses of the service.
+     *
+     * @param serviceClass  class of the service
+     * @param pollingPolicy polling policy, null to remove the override
+     */
+    public void setPollingPolicy(Class<? extends AbstractService> serviceClass, PollingPolicy pollingPolicy) {
+        notNull(serviceClass, "serviceClass");
+        if (pollingPolicy == null) {
+            servicePollingPolicies.remove(serviceClass);
+        } else {
+            servicePollingPolicies.put(serviceClass, pollingPolicy);
+        }
+    }
+
+    /**
+     * Default policy defining delays between polls
+     *
+     * @return default polling policy
+     */
+    public PollingPolicy getPollingPolicy() {
+        return pollingPolicy;
+    }
+
+    /**
+     * Policy defining delays between polls on tasks of the given service
+     *
+     * @param serviceClass class of the service
+     * @return polling policy set for the service (or its closest superclass) or the default one
+     */
+    public PollingPolicy getPollingPolicy(Class<?> serviceClass) {
+        notNull(serviceClass, "serviceClass");
+        return PollingPolicy.forClass(servicePollingPolicies, serviceClass, pollingPolicy);
+    }
+
+    /**
+     * Set executor running the initiating requests of the asynchronous service methods (e.g.
+     * {@link com.gooddata.dataset.DatasetService#loadDatasetAsync(com.gooddata.project.Project,
+     * com.gooddata.dataset.DatasetManifest, java.io.InputStream)}) and prefetching pages of
+     * {@link com.gooddata.collections.PageableIterable}s. The executor is not shut down by the SDK.
+     * <p>
+     * The default value is null, meaning an internal pool of at most {@link #getMaxConnections()} daemon threads
+     * is used.
+     *
+     * @param asyncExecutor executor of the initiating requests, null for the internal pool
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Executor running the initiating requests of the asynchronous service methods
+     *
+     * @return executor of the initiating requests or null when the internal pool is used
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    Map<Class<? extends AbstractService>, PollingPolicy> getServicePollingPolicies() {
+        return Collections.unmodifiableMap(servicePollingPolicies);
+    }
+
+    /**
+     * Set maximum number of metadata objects cached by {@link com.gooddata.md.MetadataService}
+     * (see {@link com.gooddata.md.MetadataCache}).
+     * <p>
+     * The default value is 0, which disables the cache.
+     *
+     * @param metadataCacheSize maximum number of cached metadata objects
+     */
+    public void setMetadataCacheSize(int metadataCacheSize) {
+        isTrue(metadataCacheSize >= 0, "metadataCacheSize must be not negative");
+        this.metadataCacheSize = metadataCacheSize;
+    }
+
+    /**
+     * Maximum number of cached metadata objects
+     *
+     * @return maximum number of cached metadata objects, 0 when the cache is disabled
+     */
+    public int getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    /**
+     * Set milliseconds for which the metadata objects are cached.
+     * <p>
+     * The default value is 5 minutes (300000 ms).
+     *
+     * @param metadataCacheTtl time to live of cached metadata objects in milliseconds
+     */
+    public void setMetadataCacheTtl(int metadataCacheTtl) {
+        isTrue(metadataCacheTtl > 0, "metadataCacheTtl must be greater than zero");
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
+    /**
+     * Set seconds for which the metadata objects are cached.
+     * <p>
+     * The default value is 5 minutes (300 s).
+     *
+     * @param metadataCacheTtl time to live of cached metadata objects in seconds
+     */
+    public void setMetadataCacheTtlSeconds(int metadataCacheTtl) {
+        setMetadataCacheTtl(secondsToMillis(metadataCacheTtl));
+    }
+
+    /**
+     * Milliseconds for which the metadata objects are cached
+     *
+     * @return time to live of cached metadata objects in milliseconds
+     */
+    public int getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    /**
+     * Set maximum number of responses stored for revalidation by conditional GET requests. Repeated reads
+     * of metadata objects, projects, the API root and dataset manifests then send {@code If-None-Match}
+     * ({@code If-Modified-Since}) headers and the stored response is used when the resource wasn't modified.
+     * <p>
+     * The default value is 0, which disables conditional requests.
+     *
+     * @param conditionalGetCacheSize maximum number of stored responses
+     */
+    public void setConditionalGetCacheSize(int conditionalGetCacheSize) {
+        isTrue(conditionalGetCacheSize >= 0, "conditionalGetCacheSize must be not negative");
+        this.conditionalGetCacheSize = conditionalGetCacheSize;
+    }
+
+    /**
+     * Maximum number of responses stored for revalidation by conditional GET requests
+     *
+     * @return maximum number of stored responses, 0 when conditional requests are disabled
+     */
+    public int getConditionalGetCacheSize() {
+        return conditionalGetCacheSize;
+    }
+
+    /**
+     * Set maximum number of files uploaded concurrently to the staging area by
+     * {@link com.gooddata.dataset.DatasetService#loadDatasets(com.gooddata.project.Project, java.util.Collection)}.
+     * The uploads run on the {@link #setAsyncExecutor(Executor) asynchronous executor} and the calling thread,
+     * so the pool of the executor should be large enough as well.
+     * <p>
+     * The default value is 4.
+     *
+     * @param uploadThreads maximum number of concurrent uploads
+     */
+    public void setUploadThreads(int uploadThreads) {
+        isTrue(uploadThreads > 0, "uploadThreads must be greater than zero");
+        this.uploadThreads = uploadThreads;
+    }
+
+    /**
+     * Maximum number of files uploaded concurrently to the staging area
+     *
+     * @return maximum number of concurrent uploads
+     */
+    public int getUploadThreads() {
+        return uploadThreads;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -160,7 +374,15 @@ public class GoodDataSettings {
         if (maxConnections != that.maxConnections) return false;
         if (connectionTimeout != that.connectionTimeout) return false;
         if (connectionRequestTimeout != that.connectionRequestTimeout) return false;
-        return socketTimeout == that.socketTimeout;
+        if (socketTimeout != that.socketTimeout) return false;
+        if (pollingThreads != that.pollingThreads) return false;
+        if (!pollingPolicy.equals(that.pollingPolicy)) return false;
+        if (!servicePollingPolicies.equals(that.servicePollingPolicies)) return false;
+        if (metadataCacheSize != that.metadataCacheSize) return false;
+        if (metadataCacheTtl != that.metadataCacheTtl) return false;
+        if (conditionalGetCacheSize != that.conditionalGetCacheSize) return false;
+        if (uploadThreads != that.uploadThreads) return false;
+        return asyncExecutor != null ? asyncExecutor.equals(that.asyncExecutor) : that.asyncExecutor == null;
 
     }
 
@@ -170,6 +392,14 @@ public class GoodDataSettings {
         result = 31 * result + connectionTimeout;
         result = 31 * result + connectionRequestTimeout;
         result = 31 * result + socketTimeout;
+        result = 31 * result + pollingThreads;
+        result = 31 * result + pollingPolicy.hashCode();
+        result = 31 * result + servicePollingPolicies.hashCode();
+        result = 31 * result + (asyncExecutor != null ? asyncExecutor.hashCode() : 0);
+        result = 31 * result + metadataCacheSize;
+        result = 31 * result + metadataCacheTtl;
+        result = 31 * result + conditionalGetCacheSize;
+        result = 31 * result + uploadThreads;
         return result;
     }
 
@@ -180,6 +410,14 @@ public class GoodDataSettings {
                 ", maxConnections=" + maxConnections +
                 ", connectionTimeout=" + connectionTimeout +
                 ", socketTimeout=" + socketTimeout +
+                ", pollingThreads=" + pollingThreads +
+                ", pollingPolicy=" + pollingPolicy +
+                ", servicePollingPolicies=" + servicePollingPolicies +
+                ", asyncExecutor=" + asyncExecutor +
+                ", metadataCacheSize=" + metadataCacheSize +
+                ", metadataCacheTtl=" + metadataCacheTtl +
+                ", conditionalGetCacheSize=" + conditionalGetCacheSize +
+                ", uploadThreads=" + uploadThreads +
                 '}';
     }
 
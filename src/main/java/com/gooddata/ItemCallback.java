@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+/**
+ * Callback receiving items of a collection one by one as they are read from the API response, so the whole
+ * collection is never held in memory.
+ *
+ * @param <T> item type
+ */
+public interface ItemCallback<T> {
+
+    /**
+     * Called for each item of the collection, in the order of the API response.
+     *
+     * @param item the item
+     */
+    void onItem(T item);
+}
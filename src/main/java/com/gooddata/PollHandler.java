@@ -44,6 +44,21 @@ public interface PollHandler<P,R> {
      */
     boolean isDone();
 
+    /**
+     * Cancels the polling. The handler should release resources allocated for the task (temporary files etc.).
+     * Has no effect when the polling is already done or cancelled.
+     *
+     * @return true if the polling was cancelled by this call, false otherwise
+     */
+    boolean cancel();
+
+    /**
+     * Returns true when the polling was cancelled, false otherwise.
+     *
+     * @return true when the polling was cancelled, false otherwise
+     */
+    boolean isCancelled();
+
     /**
      * Return result after polling.
      *
@@ -60,6 +75,16 @@ public interface PollHandler<P,R> {
      */
     boolean isFinished(ClientHttpResponse response) throws IOException;
 
+    /**
+     * Whether {@link #isFinished(ClientHttpResponse)} decides using the response status and headers only, without
+     * reading the response body. Responses of such handlers are not buffered in memory, the body is either streamed
+     * directly to the instance of the {@link #getPollClass() poll class} or skipped when the poll class is
+     * {@link Void}. Otherwise the body is buffered to be readable once more after the {@code isFinished} check.
+     *
+     * @return true if the response body isn't read by {@link #isFinished(ClientHttpResponse)}
+     */
+    boolean isStatusOnly();
+
     /**
      * Handle result of single polling request.
      *
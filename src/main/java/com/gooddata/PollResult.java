@@ -3,7 +3,10 @@
  */
 package com.gooddata;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.gooddata.util.Validate.notNull;
 
@@ -16,6 +19,8 @@ public final class PollResult<T> implements FutureResult<T> {
 
     private final PollHandler<?,T> handler;
 
+    private AsyncResult<T> asyncResult;
+
     /**
      * Creates a new instance of the result to be eventually retrieved by polling on the REST API.<p>
      * For internal use by services employing polling.
@@ -30,7 +35,11 @@ public final class PollResult<T> implements FutureResult<T> {
 
     @Override
     public boolean isDone() {
-        return handler.isDone() || service.pollOnce(handler);
+        final AsyncResult<T> async = getAsyncResult();
+        if (async != null) {
+            return async.isDone();
+        }
+        return handler.isDone() || handler.isCancelled() || service.pollOnce(handler);
     }
 
     @Override
@@ -40,12 +49,38 @@ public final class PollResult<T> implements FutureResult<T> {
 
     @Override
     public T get(final long timeout, final TimeUnit unit) {
+        final AsyncResult<T> async = getAsyncResult();
+        if (async != null) {
+            return await(async, timeout, unit);
+        }
         if (handler.isDone()) {
             return handler.getResult();
         }
         return service.poll(handler, timeout, unit);
     }
 
+    @Override
+    public boolean cancel() {
+        final AsyncResult<T> async = getAsyncResult();
+        if (async != null) {
+            return async.cancel(false);
+        }
+        return handler.cancel();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return handler.isCancelled();
+    }
+
+    @Override
+    public synchronized AsyncResult<T> pollAsync() {
+        if (asyncResult == null) {
+            asyncResult = service.pollAsync(handler);
+        }
+        return asyncResult;
+    }
+
     /**
      * Get URI used for polling
      *
@@ -55,4 +90,26 @@ public final class PollResult<T> implements FutureResult<T> {
     public String getPollingUri() {
         return handler.getPollingUri();
     }
+
+    private synchronized AsyncResult<T> getAsyncResult() {
+        return asyncResult;
+    }
+
+    private T await(final AsyncResult<T> async, final long timeout, final TimeUnit unit) {
+        try {
+            return unit == null ? async.get() : async.get(timeout, unit);
+        } catch (CancellationException e) {
+            throw new GoodDataException("Polling on " + getPollingUri() + " cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GoodDataException("polling failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new GoodDataException("timeout", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoodDataException("interrupted", e);
+        }
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Shared engine driving {@link PollHandler}s of the long running tasks (dataset loads, model updates, process
+ * executions, warehouse tasks, exports, ...) without blocking the caller.
+ * <p>
+ * A pending task occupies a polling thread only while its single polling request is in progress, between the polls
+ * it just waits in the scheduler queue. A handful of threads is therefore able to keep thousands of tasks moving.
+ * <p>
+ * One instance is created by {@link GoodData} (see {@link GoodDataSettings#setPollingThreads(int)}) and shared by
+ * all its services. Threads are daemons started on demand and released when idle. Cancelled tasks are dropped
+ * from the scheduler on their next turn.
+ * <p>
+ * The scheduler also runs the initiating requests of the asynchronous service methods (such as
+ * {@link com.gooddata.dataset.DatasetService#loadDatasetAsync(com.gooddata.project.Project,
+ * com.gooddata.dataset.DatasetManifest, java.io.InputStream)}) on the executor configured by
+ * {@link GoodDataSettings#setAsyncExecutor(Executor)} or on an internal pool limited by
+ * {@link GoodDataSettings#getMaxConnections()}, as more concurrent requests would just wait for a connection.
+ * The same executor prefetches pages of {@link com.gooddata.collections.PageableIterable}s.
+ *
+ * @see FutureResult#pollAsync()
+ */
+public class PollScheduler {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final int threads;
+
+    private final int asyncThreads;
+
+    private final Executor configuredAsyncExecutor;
+
+    private final PollingPolicy defaultPollingPolicy;
+
+    private final Map<Class<?>, PollingPolicy> pollingPolicies;
+
+    private ScheduledThreadPoolExecutor executor;
+
+    private ThreadPoolExecutor asyncExecutor;
+
+    /**
+     * Creates scheduler using given number of polling threads and the default polling policy.
+     *
+     * @param threads maximum number of threads used for polling
+     */
+    public PollScheduler(final int threads) {
+        this(threads, new GoodDataSettings());
+    }
+
+    /**
+     * Creates scheduler configured by given settings (number of threads and polling policies).
+     *
+     * @param settings settings
+     */
+    public PollScheduler(final GoodDataSettings settings) {
+        this(notNull(settings, "settings").getPollingThreads(), settings);
+    }
+
+    private PollScheduler(final int threads, final GoodDataSettings settings) {
+        isTrue(threads > 0, "threads must be greater than zero");
+        this.threads = threads;
+        this.asyncThreads = settings.getMaxConnections();
+        this.configuredAsyncExecutor = settings.getAsyncExecutor();
+        this.defaultPollingPolicy = settings.getPollingPolicy();
+        this.pollingPolicies = new HashMap<Class<?>, PollingPolicy>(settings.getServicePollingPolicies());
+    }
+
+    /**
+     * Returns policy defining delays between polls on tasks of the given service.
+     *
+     * @param serviceClass class of the service
+     * @return polling policy
+     * @see GoodDataSettings#getPollingPolicy(Class)
+     */
+    public PollingPolicy getPollingPolicy(final Class<?> serviceClass) {
+        notNull(serviceClass, "serviceClass");
+        synchronized (pollingPolicies) {
+            final PollingPolicy policy = PollingPolicy.forClass(pollingPolicies, serviceClass, defaultPollingPolicy);
+            pollingPolicies.put(serviceClass, policy);
+            return policy;
+        }
+    }
+
+    /**
+     * Starts asynchronous polling of the given handler.
+     *
+     * @param service service the handler belongs to
+     * @param handler poll handler
+     * @param <R> result type
+     * @return result completed when the polling finishes
+     */
+    <R> AsyncResult<R> schedule(final AbstractService service, final PollHandler<?, R> handler) {
+        notNull(service, "service");
+        notNull(handler, "handler");
+        final AsyncResult<R> result = new AsyncResult<R>() {
+            @Override
+            protected void onCancel() {
+                handler.cancel();
+            }
+        };
+        if (handler.isCancelled()) {
+            result.cancel(false);
+        } else {
+            submit(new PollTask<>(service, handler, result, getPollingPolicy(service.getClass())), 0);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the initiating request of a long running task asynchronously and then polls the task it started.
+     * Cancelling the returned result before the task is started cancels the task as soon as it's started.
+     *
+     * @param initiator initiates the task, typically by calling the blocking service method
+     * @param <R> result type
+     * @return result completed when the task finishes
+     */
+    <R> AsyncResult<R> execute(final Callable<? extends FutureResult<R>> initiator) {
+        notNull(initiator, "initiator");
+        final AtomicReference<FutureResult<R>> started = new AtomicReference<>();
+        final AsyncResult<R> result = new AsyncResult<R>() {
+            @Override
+            protected void onCancel() {
+                final FutureResult<R> task = started.get();
+                if (task != null) {
+                    task.cancel();
+                }
+            }
+        };
+        try {
+            getAsyncExecutor().execute(new InitiatingTask<>(initiator, started, result));
+        } catch (RejectedExecutionException e) {
+            result.fail(new GoodDataException("Unable to start the task", e));
+        }
+        return result;
+    }
+
+    /**
+     * Shuts the scheduler down. Pending polls are abandoned, they never complete. Executor set by
+     * {@link GoodDataSettings#setAsyncExecutor(Executor)} is left running.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdownNow();
+            asyncExecutor = null;
+        }
+    }
+
+    private void submit(final PollTask<?> task, final long delayMillis) {
+        try {
+            getExecutor().schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            task.result.fail(new GoodDataException("Unable to schedule polling on " + task.handler.getPollingUri(), e));
+        }
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(threads, new PollThreadFactory("gooddata-poll-"));
+            executor.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Returns executor for the background work of the services (initiating requests, prefetching, ...).
+     *
+     * @return executor set by {@link GoodDataSettings#setAsyncExecutor(Executor)} or the internal one
+     */
+    synchronized Executor getAsyncExecutor() {
+        if (configuredAsyncExecutor != null) {
+            return configuredAsyncExecutor;
+        }
+        if (asyncExecutor == null) {
+            asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new PollThreadFactory("gooddata-async-"));
+            asyncExecutor.allowCoreThreadTimeOut(true);
+        }
+        return asyncExecutor;
+    }
+
+    private static class InitiatingTask<R> implements Runnable {
+
+        private final Callable<? extends FutureResult<R>> initiator;
+        private final AtomicReference<FutureResult<R>> started;
+        private final AsyncResult<R> result;
+
+        private InitiatingTask(final Callable<? extends FutureResult<R>> initiator,
+                               final AtomicReference<FutureResult<R>> started, final AsyncResult<R> result) {
+            this.initiator = initiator;
+            this.started = started;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            final FutureResult<R> task;
+            try {
+                task = initiator.call();
+            } catch (GoodDataException e) {
+                result.fail(e);
+                return;
+            } catch (Exception e) {
+                result.fail(new GoodDataException("Unable to start the task", e));
+                return;
+            }
+            started.set(task);
+            if (result.isCancelled()) {
+                task.cancel();
+                return;
+            }
+            task.pollAsync().addCallback(new ResultCallback<R>() {
+                @Override
+                public void onSuccess(final R value) {
+                    result.complete(value);
+                }
+
+                @Override
+                public void onFailure(final GoodDataException e) {
+                    result.fail(e);
+                }
+            });
+        }
+    }
+
+    private class PollTask<R> implements Runnable {
+
+        private final AbstractService service;
+        private final PollHandler<?, R> handler;
+        private final AsyncResult<R> result;
+        private final PollingPolicy policy;
+        private int attempt = 0;
+
+        private PollTask(final AbstractService service, final PollHandler<?, R> handler, final AsyncResult<R> result,
+                         final PollingPolicy policy) {
+            this.service = service;
+            this.handler = handler;
+            this.result = result;
+            this.policy = policy;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            if (handler.isCancelled()) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                if (handler.isDone() || service.pollOnce(handler)) {
+                    result.complete(handler.getResult());
+                } else {
+                    submit(this, policy.getDelay(++attempt));
+                }
+            } catch (GoodDataException e) {
+                result.fail(e);
+            } catch (RuntimeException e) {
+                result.fail(new GoodDataException("Polling on " + handler.getPollingUri() + " failed", e));
+            }
+        }
+    }
+
+    private static class PollThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String prefix;
+
+        private PollThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Defines delays between the subsequent polling requests on the task status. The delay starts at the initial value,
+ * grows exponentially by the multiplier up to the maximum and can be randomized by the jitter to spread the load
+ * of many tasks started at once.
+ * <p>
+ * The policy is immutable, configure it using {@link GoodDataSettings#setPollingPolicy(PollingPolicy)} or per service
+ * using {@link GoodDataSettings#setPollingPolicy(Class, PollingPolicy)}.
+ * <p>
+ * Usage example:
+ * <pre><code>
+ *     // start at 200 ms, double the delay after each poll up to 10 seconds, randomize by +-10%
+ *     new PollingPolicy(200, 2, 10000, 0.1)
+ * </code></pre>
+ */
+public final class PollingPolicy {
+
+    /**
+     * Polls every {@link AbstractService#WAIT_BEFORE_RETRY_IN_MILLIS} milliseconds.
+     */
+    public static final PollingPolicy DEFAULT = fixed(AbstractService.WAIT_BEFORE_RETRY_IN_MILLIS);
+
+    private final long initialDelay;
+    private final double multiplier;
+    private final long maxDelay;
+    private final double jitter;
+
+    /**
+     * Creates new policy.
+     *
+     * @param initialDelay delay before the second poll in milliseconds
+     * @param multiplier   factor the delay is multiplied by after each poll (1 for the fixed delay)
+     * @param maxDelay     maximal delay in milliseconds
+     * @param jitter       maximal relative random deviation of the delay, between 0 (no randomization) and 1
+     */
+    public PollingPolicy(final long initialDelay, final double multiplier, final long maxDelay, final double jitter) {
+        isTrue(initialDelay >= 0, "initialDelay must not be negative");
+        isTrue(multiplier >= 1, "multiplier must be at least 1");
+        isTrue(maxDelay >= initialDelay, "maxDelay must not be lower than initialDelay");
+        isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Creates policy polling with the fixed delay.
+     *
+     * @param delay delay between polls in milliseconds
+     * @return new policy
+     */
+    public static PollingPolicy fixed(final long delay) {
+        return new PollingPolicy(delay, 1, delay, 0);
+    }
+
+    /**
+     * Creates policy starting with the initial delay and doubling it after each poll up to the maximum.
+     *
+     * @param initialDelay delay before the second poll
+     * @param maxDelay     maximal delay
+     * @param unit         unit of the delays
+     * @return new policy
+     */
+    public static PollingPolicy exponential(final long initialDelay, final long maxDelay, final TimeUnit unit) {
+        return new PollingPolicy(unit.toMillis(initialDelay), 2, unit.toMillis(maxDelay), 0);
+    }
+
+    /**
+     * Returns delay to wait before the next poll.
+     *
+     * @param attempt number of polls already done without success (starting with 1)
+     * @return delay in milliseconds
+     */
+    public long getDelay(final int attempt) {
+        isTrue(attempt > 0, "attempt must be greater than zero");
+        double delay = initialDelay * Math.pow(multiplier, attempt - 1);
+        if (delay > maxDelay) {
+            delay = maxDelay;
+        }
+        if (jitter > 0) {
+            delay *= 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        }
+        return Math.round(delay);
+    }
+
+    /**
+     * Finds policy of the given service class or its closest superclass.
+     *
+     * @param policies     policies by service classes
+     * @param serviceClass class of the service
+     * @param fallback     policy returned when there is none for the class
+     * @return polling policy
+     */
+    static PollingPolicy forClass(final Map<?, PollingPolicy> policies, final Class<?> serviceClass,
+                                  final PollingPolicy fallback) {
+        for (Class<?> cls = serviceClass; cls != null; cls = cls.getSuperclass()) {
+            final PollingPolicy policy = policies.get(cls);
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return fallback;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final PollingPolicy that = (PollingPolicy) o;
+
+        if (initialDelay != that.initialDelay) return false;
+        if (Double.compare(that.multiplier, multiplier) != 0) return false;
+        if (maxDelay != that.maxDelay) return false;
+        return Double.compare(that.jitter, jitter) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (initialDelay ^ (initialDelay >>> 32));
+        long temp = Double.doubleToLongBits(multiplier);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (int) (maxDelay ^ (maxDelay >>> 32));
+        temp = Double.doubleToLongBits(jitter);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PollingPolicy{" +
+                "initialDelay=" + initialDelay +
+                ", multiplier=" + multiplier +
+                ", maxDelay=" + maxDelay +
+                ", jitter=" + jitter +
+                '}';
+    }
+}
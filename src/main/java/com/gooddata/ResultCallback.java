@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata;
+
+/**
+ * Callback notified when an {@link AsyncResult} completes.
+ *
+ * @param <T> result type
+ * @see AsyncResult#addCallback(ResultCallback)
+ */
+public interface ResultCallback<T> {
+
+    /**
+     * Called when the result is successfully available.
+     *
+     * @param result the result value
+     */
+    void onSuccess(T result);
+
+    /**
+     * Called when the operation failed.
+     *
+     * @param e the failure
+     */
+    void onFailure(GoodDataException e);
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.collections;
+
+/**
+ * Loads single page of a paged collection, used by {@link PageableIterable}.
+ *
+ * @param <E> collection element type
+ */
+public interface PageLoader<E> {
+
+    /**
+     * Loads the given page.
+     *
+     * @param page page to load, null for the first page with the default paging
+     * @return the page, never null
+     */
+    PageableList<E> load(Page page);
+}
@@ -43,6 +43,24 @@ public class PageRequest implements Page {
         this(null, limit);
     }
 
+    /**
+     * Page offset (position in the collection)
+     *
+     * @return page offset, null when not set
+     */
+    public String getOffset() {
+        return offset;
+    }
+
+    /**
+     * Maximal number of returned elements (on a page)
+     *
+     * @return page limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
     @Override
     public URI getPageUri(final UriComponentsBuilder uriBuilder) {
         notNull(uriBuilder, "uriBuilder");
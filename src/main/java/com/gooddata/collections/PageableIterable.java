@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.collections;
+
+import com.gooddata.GoodDataException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Lazy view of all pages of a paged collection. Pages are loaded on demand while iterating, the next page is
+ * prefetched in the background while the items of the current one are being consumed.
+ * <p>
+ * By default the loaded pages are retained, so iterating the collection again doesn't repeat the requests.
+ * Use {@link #withBoundedMemory()} for large collections, to keep at most the current and the prefetched page
+ * in memory.
+ * <p>
+ * Collections paged by numeric offsets can be loaded by several concurrent requests, see
+ * {@link #withParallelism(int, int)}.
+ * <p>
+ * Instances can be iterated by multiple threads, the iterators themselves aren't thread safe.
+ *
+ * @param <E> collection element type
+ */
+public class PageableIterable<E> implements Iterable<E> {
+
+    private final PageLoader<E> loader;
+    private final Page startPage;
+    private final Executor prefetchExecutor;
+    private final boolean retainPages;
+    private final int parallelism;
+    private final int pageSize;
+    private final List<PageableList<E>> pages = new ArrayList<>();
+
+    /**
+     * Creates view of the collection starting with the given page.
+     *
+     * @param loader           loads the pages
+     * @param startPage        first page to load, null for the first page with the default paging
+     * @param prefetchExecutor executor prefetching the next page, null to disable prefetching
+     */
+    public PageableIterable(final PageLoader<E> loader, final Page startPage, final Executor prefetchExecutor) {
+        this(loader, startPage, prefetchExecutor, true, 0, 0);
+    }
+
+    private PageableIterable(final PageLoader<E> loader, final Page startPage, final Executor prefetchExecutor,
+                             final boolean retainPages, final int parallelism, final int pageSize) {
+        this.loader = notNull(loader, "loader");
+        this.startPage = startPage;
+        this.prefetchExecutor = prefetchExecutor;
+        this.retainPages = retainPages;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Returns view of the same collection which doesn't retain the loaded pages. Each iteration loads the pages again
+     * and drops them once their items are consumed.
+     *
+     * @return new bounded memory view
+     */
+    public PageableIterable<E> withBoundedMemory() {
+        return new PageableIterable<>(loader, startPage, prefetchExecutor, false, parallelism, pageSize);
+    }
+
+    /**
+     * Returns view of the same collection which requests the pages by their offsets, up to the given number of pages
+     * at once. The items are still iterated in the collection order. The pages are requested by {@link PageRequest}s
+     * starting with the offset of the start page (which must be numeric) or 0, the collection ends with the first
+     * page having less items than the page size or not linking the next page. Up to {@code parallelism - 1}
+     * requests beyond the end of the collection are wasted.
+     * <p>
+     * Use only for collections paged by the numeric offsets (position of the first item of the page).
+     *
+     * @param parallelism maximal number of pages requested at once
+     * @param pageSize    number of items requested per page
+     * @return new parallel view
+     */
+    public PageableIterable<E> withParallelism(final int parallelism, final int pageSize) {
+        isTrue(parallelism > 0, "parallelism must be greater than zero");
+        isTrue(pageSize > 0, "pageSize must be greater than zero");
+        if (startPage != null) {
+            isTrue(startPage instanceof PageRequest, "startPage must be PageRequest with numeric offset");
+        }
+        return new PageableIterable<>(loader, startPage, prefetchExecutor, retainPages, parallelism, pageSize);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return parallelism > 0 ? new ParallelPagesIterator() : new LinkedPagesIterator();
+    }
+
+    private PageableList<E> getRetainedPage(final int index) {
+        synchronized (pages) {
+            return index < pages.size() ? pages.get(index) : null;
+        }
+    }
+
+    private void retainPage(final int index, final PageableList<E> page) {
+        if (retainPages) {
+            synchronized (pages) {
+                if (index == pages.size()) {
+                    pages.add(page);
+                }
+            }
+        }
+    }
+
+    private FutureTask<PageableList<E>> submit(final Page page) {
+        final FutureTask<PageableList<E>> task = new FutureTask<>(new Callable<PageableList<E>>() {
+            @Override
+            public PageableList<E> call() {
+                return loader.load(page);
+            }
+        });
+        try {
+            if (prefetchExecutor == null) {
+                task.run();
+            } else {
+                prefetchExecutor.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+        return task;
+    }
+
+    private static <E> PageableList<E> await(final FutureTask<PageableList<E>> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GoodDataException("Unable to load page", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoodDataException("interrupted", e);
+        }
+    }
+
+    private abstract class PagesIterator implements Iterator<E> {
+
+        private Iterator<E> items = Collections.<E>emptyList().iterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                final PageableList<E> page = nextPage();
+                if (page == null) {
+                    return false;
+                }
+                items = page.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Collection is read only");
+        }
+
+        /**
+         * @return next page or null when there are no more pages
+         */
+        protected abstract PageableList<E> nextPage();
+    }
+
+    /**
+     * Follows the next page links, prefetching single page ahead.
+     */
+    private class LinkedPagesIterator extends PagesIterator {
+
+        private int index = -1;
+        private PageableList<E> current;
+        private FutureTask<PageableList<E>> prefetched;
+
+        @Override
+        protected PageableList<E> nextPage() {
+            final Page page;
+            if (current == null) {
+                page = startPage;
+            } else if (current.hasNextPage()) {
+                page = current.getNextPage();
+            } else {
+                return null;
+            }
+            index++;
+            current = getPage(page);
+            if (prefetchExecutor != null && current.hasNextPage() && getRetainedPage(index + 1) == null) {
+                prefetched = submit(current.getNextPage());
+            }
+            return current;
+        }
+
+        private PageableList<E> getPage(final Page page) {
+            final PageableList<E> loaded;
+            if (prefetched != null) {
+                loaded = await(prefetched);
+                prefetched = null;
+            } else {
+                final PageableList<E> retained = getRetainedPage(index);
+                if (retained != null) {
+                    return retained;
+                }
+                loaded = loader.load(page);
+            }
+            retainPage(index, loaded);
+            return loaded;
+        }
+    }
+
+    /**
+     * Requests the pages by offsets, keeping up to {@link #parallelism} requests in flight.
+     */
+    private class ParallelPagesIterator extends PagesIterator {
+
+        private final int startOffset;
+        private final Deque<FutureTask<PageableList<E>>> inFlight = new ArrayDeque<>();
+        private int index = -1;
+        private int nextToSubmit = 0;
+        private boolean lastReached = false;
+
+        private ParallelPagesIterator() {
+            final String offset = startPage == null ? null : ((PageRequest) startPage).getOffset();
+            try {
+                startOffset = offset == null ? 0 : Integer.parseInt(offset);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("startPage must have numeric offset, got " + offset, e);
+            }
+        }
+
+        @Override
+        protected PageableList<E> nextPage() {
+            if (lastReached) {
+                return null;
+            }
+            index++;
+            PageableList<E> page = inFlight.isEmpty() ? getRetainedPage(index) : null;
+            if (page == null) {
+                nextToSubmit = Math.max(nextToSubmit, index);
+                fill();
+                try {
+                    page = await(inFlight.poll());
+                } catch (RuntimeException e) {
+                    cancelInFlight();
+                    throw e;
+                }
+                retainPage(index, page);
+            }
+            if (page.size() < pageSize || !page.hasNextPage()) {
+                lastReached = true;
+                cancelInFlight();
+            } else if (!inFlight.isEmpty()) {
+                fill();
+            }
+            return page;
+        }
+
+        private void fill() {
+            while (inFlight.size() < parallelism) {
+                inFlight.add(submit(new PageRequest(startOffset + nextToSubmit * pageSize, pageSize)));
+                nextToSubmit++;
+            }
+        }
+
+        private void cancelInFlight() {
+            for (FutureTask<PageableList<E>> task : inFlight) {
+                task.cancel(false);
+            }
+            inFlight.clear();
+        }
+    }
+}
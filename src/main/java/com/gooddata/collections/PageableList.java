@@ -16,9 +16,9 @@ import static com.gooddata.util.Validate.notNull;
  */
 public class PageableList<E> implements List<E> {
 
-    static final String ITEMS_NODE = "items";
-    static final String LINKS_NODE = "links";
-    static final String PAGING_NODE = "paging";
+    public static final String ITEMS_NODE = "items";
+    public static final String LINKS_NODE = "links";
+    public static final String PAGING_NODE = "paging";
 
     private final List<E> items;
     private final Paging paging;
@@ -1,13 +1,11 @@
 package com.gooddata.collections;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -38,39 +36,59 @@ public abstract class PageableListDeserializer<T, E> extends JsonDeserializer<T>
 
     protected abstract T createList(final List<E> items, final Paging paging, final Map<String, String> links);
 
+    /**
+     * Reads the list token by token, the paging, links and items fields can come in any order and the items
+     * are bound directly without building the intermediate JSON tree.
+     */
     @Override
     public T deserialize(final JsonParser jp, final DeserializationContext context) throws IOException, JsonProcessingException {
-        final JsonNode root = jp.readValueAsTree();
-        if (root == null || root.isNull()) {
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
             return null;
         }
-
-        // codec should be always instance of ObjectMapper so this cast should be safe
-        // we do not want to create custom object mapper with different configuration than the global one has
-        final ObjectMapper objectMapper = (ObjectMapper) jp.getCodec();
-
-        final JsonNode pagingNode = root.get(PAGING_NODE);
-        final Paging paging = pagingNode == null ? null : objectMapper.convertValue(pagingNode, Paging.class);
-
-        final JsonNode linksNode = root.get(LINKS_NODE);
-        final Map<String, String> links;
-        if (linksNode != null) {
-            links = objectMapper.convertValue(linksNode, LINKS_TYPE);
-        } else {
-            links = null;
+        if (token == JsonToken.START_OBJECT) {
+            token = jp.nextToken();
         }
 
-        final JsonNode itemsNode = root.get(collectionName);
-        final List<E> items;
-        if (itemsNode == null) {
-            items = Collections.emptyList();
-        } else {
-            items = new ArrayList<>(itemsNode.size());
-            for (JsonNode item : itemsNode) {
-                items.add(objectMapper.convertValue(item, elementType));
+        Paging paging = null;
+        Map<String, String> links = null;
+        List<E> items = null;
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            final String field = jp.getCurrentName();
+            final JsonToken valueToken = jp.nextToken();
+            if (valueToken == JsonToken.VALUE_NULL) {
+                continue;
             }
+            if (PAGING_NODE.equals(field)) {
+                paging = context.readValue(jp, Paging.class);
+            } else if (LINKS_NODE.equals(field)) {
+                links = context.readValue(jp, context.getTypeFactory().constructType(LINKS_TYPE));
+            } else if (collectionName.equals(field)) {
+                items = readItems(jp, context);
+            } else {
+                jp.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw context.mappingException("Unexpected token " + token + " when reading " + handledType());
+        }
+        return createList(items == null ? Collections.<E>emptyList() : items, paging, links);
+    }
+
+    private List<E> readItems(final JsonParser jp, final DeserializationContext context) throws IOException {
+        if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+            jp.skipChildren();
+            return null;
+        }
+        final JsonDeserializer<Object> itemDeserializer =
+                context.findRootValueDeserializer(context.constructType(elementType));
+        final List<E> items = new ArrayList<>();
+        for (JsonToken token = jp.nextToken(); token != JsonToken.END_ARRAY; token = jp.nextToken()) {
+            @SuppressWarnings("unchecked")
+            final E item = token == JsonToken.VALUE_NULL ? null : (E) itemDeserializer.deserialize(jp, context);
+            items.add(item);
         }
-        return createList(items, paging, links);
+        return items;
     }
 
 }
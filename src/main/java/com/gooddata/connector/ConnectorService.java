@@ -6,6 +6,7 @@ package com.gooddata.connector;
 import com.gooddata.AbstractService;
 import com.gooddata.FutureResult;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.SimplePollHandler;
@@ -37,6 +38,19 @@ public class ConnectorService extends AbstractService {
         this.projectService = notNull(projectService, "projectService");
     }
 
+    /**
+     * Constructs service for connector integration management.
+     *
+     * @param restTemplate   RESTful HTTP Spring template
+     * @param projectService GoodData project service
+     * @param pollScheduler  scheduler driving asynchronous polling
+     */
+    public ConnectorService(final RestTemplate restTemplate, final ProjectService projectService,
+                            final PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+        this.projectService = notNull(projectService, "projectService");
+    }
+
     /**
      * Retrieve connector integration
      *
@@ -4,10 +4,14 @@ import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
 import com.gooddata.FutureResult;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
+import com.gooddata.ItemCallback;
 import com.gooddata.account.AccountService;
 import com.gooddata.collections.Page;
+import com.gooddata.collections.PageLoader;
+import com.gooddata.collections.PageableIterable;
 import com.gooddata.collections.PageableList;
 import com.gooddata.gdc.DataStoreService;
 import com.gooddata.project.Project;
@@ -35,6 +39,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.Collection;
 
+import static com.gooddata.collections.PageableList.ITEMS_NODE;
 import static com.gooddata.util.Validate.notEmpty;
 import static com.gooddata.util.Validate.notNull;
 import static java.util.Collections.emptyList;
@@ -63,6 +68,20 @@ public class ProcessService extends AbstractService {
         this.accountService = notNull(accountService, "accountService");
     }
 
+    /**
+     * Sets RESTful HTTP Spring template and scheduler used for asynchronous polling.
+     * @param restTemplate RESTful HTTP Spring template
+     * @param accountService service to access accounts
+     * @param dataStoreService service for upload process data
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public ProcessService(RestTemplate restTemplate, AccountService accountService, DataStoreService dataStoreService,
+                          PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+        this.dataStoreService = dataStoreService;
+        this.accountService = notNull(accountService, "accountService");
+    }
+
     /**
      * Create new process with given data by given project.
      *
@@ -154,6 +173,22 @@ public class ProcessService extends AbstractService {
         return listProcesses(getProcessesUri(project));
     }
 
+    /**
+     * Hands over the processes of given project to the callback one by one as they are read from the response,
+     * without holding the whole collection in memory.
+     * @param project project of processes
+     * @param callback receives the processes
+     */
+    public void forEachProcess(Project project, ItemCallback<? super DataloadProcess> callback) {
+        notNull(project, "project");
+        notNull(callback, "callback");
+        try {
+            streamItems(getProcessesUri(project), DataloadProcess.class, callback, "processes", ITEMS_NODE);
+        } catch (GoodDataException | RestClientException e) {
+            throw new GoodDataException("Unable to list processes", e);
+        }
+    }
+
     /**
      * Get list of current user processes by given user account.
      * @return list of found processes or empty list
@@ -236,6 +271,11 @@ public class ProcessService extends AbstractService {
                 return HttpStatus.NO_CONTENT.equals(response.getStatusCode());
             }
 
+            @Override
+            public boolean isStatusOnly() {
+                return true;
+            }
+
             @Override
             public void handlePollResult(Void pollResult) {
                 final ProcessExecutionDetail executionDetail = getProcessExecutionDetailByUri(detailLink);
@@ -371,6 +411,36 @@ public class ProcessService extends AbstractService {
         return listSchedules(page.getPageUri(UriComponentsBuilder.fromUri(getSchedulesUri(project))));
     }
 
+    /**
+     * Get all schedules of given project as lazily loaded collection. The pages are requested while iterating and
+     * the next page is prefetched while the current one is processed.
+     *
+     * @param project project of schedules
+     * @return all schedules of the project
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<Schedule> listAllSchedules(Project project) {
+        return listAllSchedules(project, null);
+    }
+
+    /**
+     * Get all schedules of given project as lazily loaded collection starting with the given page.
+     *
+     * @param project   project of schedules
+     * @param startPage first page to be retrieved
+     * @return schedules of the project starting with the given page
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<Schedule> listAllSchedules(final Project project, final Page startPage) {
+        notNull(project, "project");
+        return allPages(new PageLoader<Schedule>() {
+            @Override
+            public PageableList<Schedule> load(final Page page) {
+                return page == null ? listSchedules(project) : listSchedules(project, page);
+            }
+        }, startPage);
+    }
+
     /**
      * Delete given schedule
      *
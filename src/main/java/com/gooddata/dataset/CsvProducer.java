@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+import java.io.IOException;
+
+/**
+ * Produces rows of a dataset, see {@link DatasetService#loadDataset(com.gooddata.project.Project, DatasetManifest, CsvProducer)}.
+ */
+public interface CsvProducer {
+
+    /**
+     * Writes all rows of the dataset.
+     *
+     * @param writer writer of the rows
+     * @throws IOException when the rows can't be written, also when the upload fails
+     */
+    void produce(CsvWriter writer) throws IOException;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+/**
+ * Single problem found by {@link CsvValidator}.
+ */
+public class CsvValidationError {
+
+    private final long line;
+    private final String column;
+    private final String message;
+
+    CsvValidationError(final long line, final String column, final String message) {
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    /**
+     * @return line of the CSV (starting with 1 for the header) where the invalid record starts
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return name of the invalid column or null when the problem concerns the whole record
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + line + (column == null ? "" : ", column '" + column + "'") + ": " + message;
+    }
+}
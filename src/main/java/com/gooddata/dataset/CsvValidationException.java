@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by the stream returned from {@link CsvValidator#validating(java.io.InputStream)} when the CSV is invalid,
+ * so the upload reading the stream fails before the ETL pull is triggered.
+ */
+public class CsvValidationException extends IOException {
+
+    private final List<CsvValidationError> errors;
+
+    CsvValidationException(final List<CsvValidationError> errors) {
+        super("CSV validation failed: " + errors);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return errors found, ordered by line
+     */
+    public List<CsvValidationError> getErrors() {
+        return errors;
+    }
+}
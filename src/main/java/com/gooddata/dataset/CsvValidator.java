@@ -0,0 +1,498 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Validates CSV of a dataset against its {@link DatasetManifest} before the ETL pull, so the bad rows are reported
+ * without waiting for the upload and the pull to fail. Checks that the header contains exactly the column names
+ * of the manifest parts, that every record has as many values as the header, that the reference key columns
+ * are not empty and that the values of the columns with date constraint match the date format.
+ * <p>
+ * The CSV is parsed in single pass, the records are checked in chunks, concurrently when executor is given.
+ * Validation stops once the maximum number of errors is found. The validator holds no state of the validation,
+ * so it can be used for more CSVs, also concurrently.
+ *
+ * @see DatasetService#createCsvValidator(DatasetManifest, int, int)
+ */
+public class CsvValidator {
+
+    /**
+     * Number of records checked as single task
+     */
+    static final int CHUNK_ROWS = 10000;
+
+    private static final String DATE_CONSTRAINT = "date";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String BOM = "\uFEFF";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<ColumnCheck> checks = new ArrayList<>();
+    private final int maxErrors;
+    private final Executor executor;
+    private final int threads;
+
+    /**
+     * Creates validator checking the records in the calling thread.
+     *
+     * @param manifest  dataset manifest with the parts defining the columns
+     * @param maxErrors number of errors after which the validation stops
+     */
+    public CsvValidator(final DatasetManifest manifest, final int maxErrors) {
+        this(manifest, maxErrors, null, 1);
+    }
+
+    /**
+     * Creates validator checking the chunks of records concurrently by the given executor.
+     *
+     * @param manifest  dataset manifest with the parts defining the columns
+     * @param maxErrors number of errors after which the validation stops
+     * @param executor  executor of the checks, the calling thread checks the records when null
+     * @param threads   maximum number of chunks checked by the executor at once, the chunks over the limit
+     *                  are checked in the calling thread
+     * @throws IllegalArgumentException when the manifest has no parts or contains invalid date format
+     */
+    public CsvValidator(final DatasetManifest manifest, final int maxErrors, final Executor executor,
+                        final int threads) {
+        notNull(manifest, "manifest");
+        isTrue(maxErrors > 0, "maxErrors must be greater than zero");
+        isTrue(threads > 0, "threads must be greater than zero");
+        CsvWriter.getColumns(manifest);
+        for (DatasetManifest.Part part : manifest.getParts()) {
+            final String datePattern = part.getConstraints() == null ? null : part.getConstraints().get(DATE_CONSTRAINT);
+            if (datePattern != null) {
+                // fail fast on pattern which can't be parsed
+                new SimpleDateFormat(datePattern);
+            }
+            checks.add(new ColumnCheck(part.getColumnName(), Boolean.TRUE.equals(part.getReferenceKey()), datePattern));
+        }
+        this.maxErrors = maxErrors;
+        this.executor = executor;
+        this.threads = threads;
+    }
+
+    /**
+     * Reads the whole CSV (or until the maximum number of errors is found) and returns the errors.
+     * The stream is not closed.
+     *
+     * @param csv CSV to validate
+     * @return errors ordered by line, empty when the CSV is valid
+     * @throws IOException when the CSV can't be read
+     */
+    public List<CsvValidationError> validate(final InputStream csv) throws IOException {
+        notNull(csv, "csv");
+        final Validation validation = new Validation();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (!validation.isFull() && (read = csv.read(buffer)) >= 0) {
+            validation.update(buffer, 0, read);
+        }
+        return validation.finish();
+    }
+
+    /**
+     * Returns stream validating the CSV as it's read, e.g. by the upload to the staging area, so no extra pass over
+     * the data is needed. The stream fails with {@link CsvValidationException} as soon as the maximum number
+     * of errors is found or at the end of the CSV when any error is found.
+     *
+     * @param csv CSV to validate
+     * @return validating stream, closing also the given one
+     */
+    public InputStream validating(final InputStream csv) {
+        notNull(csv, "csv");
+        final Validation validation = new Validation();
+        return new FilterInputStream(csv) {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                final byte[] b = new byte[1];
+                final int read = read(b, 0, 1);
+                return read < 0 ? read : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                if (finished) {
+                    return -1;
+                }
+                final int read = super.read(b, off, len);
+                if (read > 0) {
+                    validation.update(b, off, read);
+                }
+                if (read < 0 || validation.isFull()) {
+                    finished = true;
+                    final List<CsvValidationError> errors = validation.finish();
+                    if (!errors.isEmpty()) {
+                        throw new CsvValidationException(errors);
+                    }
+                }
+                return read;
+            }
+
+            @Override
+            public long skip(final long n) throws IOException {
+                final byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+                final int read = read(buffer, 0, buffer.length);
+                return read < 0 ? 0 : read;
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+    }
+
+    private static class ColumnCheck {
+        private final String column;
+        private final boolean referenceKey;
+        private final String datePattern;
+
+        private ColumnCheck(final String column, final boolean referenceKey, final String datePattern) {
+            this.column = column;
+            this.referenceKey = referenceKey;
+            this.datePattern = datePattern;
+        }
+    }
+
+    private static class Record {
+        private final long line;
+        private final String[] values;
+        private final String error;
+
+        private Record(final long line, final String[] values, final String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+    }
+
+    /**
+     * State of single validation: the parser fed by the bytes of the CSV and the chunks being checked.
+     * The parser works on bytes, it's safe for UTF-8 as the delimiters never occur within multi-byte characters.
+     */
+    private class Validation {
+
+        private static final int FIELD_START = 0;
+        private static final int UNQUOTED = 1;
+        private static final int QUOTED = 2;
+        private static final int QUOTED_QUOTE = 3;
+
+        private final List<CsvValidationError> errors = Collections.synchronizedList(new ArrayList<CsvValidationError>());
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final Semaphore permits = new Semaphore(threads);
+        private final List<ChunkCheck> submitted = new ArrayList<>();
+
+        private final ByteArrayOutputStream field = new ByteArrayOutputStream();
+        private final List<String> values = new ArrayList<>();
+        private int state = FIELD_START;
+        private long line = 1;
+        private long recordLine;
+        private boolean recordEmpty = true;
+        private String recordError;
+
+        private int[] columnIndexes;
+        private int headerSize;
+        private boolean stopped;
+        private List<Record> chunk = new ArrayList<>();
+
+        boolean isFull() {
+            return stopped || errorCount.get() >= maxErrors;
+        }
+
+        void update(final byte[] bytes, final int off, final int len) throws IOException {
+            for (int i = off; i < off + len && !stopped; i++) {
+                final byte c = bytes[i];
+                if (recordEmpty && c != '\r' && c != '\n') {
+                    recordEmpty = false;
+                    recordLine = line;
+                }
+                switch (state) {
+                    case QUOTED:
+                        if (c == '"') {
+                            state = QUOTED_QUOTE;
+                        } else {
+                            field.write(c);
+                        }
+                        break;
+                    case QUOTED_QUOTE:
+                        if (c == '"') {
+                            field.write(c);
+                            state = QUOTED;
+                            break;
+                        }
+                        if (c != ',' && c != '\r' && c != '\n' && recordError == null) {
+                            recordError = "Unexpected character after closing quote";
+                        }
+                        updateUnquoted(c);
+                        break;
+                    default:
+                        updateUnquoted(c);
+                }
+                if (c == '\n') {
+                    line++;
+                }
+            }
+        }
+
+        /**
+         * Handles the character outside of the quotes, i.e. of an unquoted value or following the closing quote
+         */
+        private void updateUnquoted(final byte c) throws IOException {
+            if (c == ',') {
+                endField();
+                state = FIELD_START;
+            } else if (c == '\n') {
+                if (!recordEmpty) {
+                    endField();
+                    endRecord();
+                }
+                state = FIELD_START;
+            } else if (c == '"' && state == FIELD_START) {
+                state = QUOTED;
+            } else if (c != '\r') {
+                field.write(c);
+                state = UNQUOTED;
+            }
+        }
+
+        List<CsvValidationError> finish() throws IOException {
+            // the record being read when the validation stopped is incomplete
+            if (!isFull() && !recordEmpty) {
+                if (state == QUOTED) {
+                    recordError = "Unterminated quoted value";
+                }
+                endField();
+                endRecord();
+            }
+            if (!stopped && columnIndexes == null) {
+                addError(new CsvValidationError(1, null, "Missing header"));
+            }
+            submitChunk();
+            awaitChunks();
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            final List<CsvValidationError> result = new ArrayList<>(errors);
+            Collections.sort(result, new Comparator<CsvValidationError>() {
+                @Override
+                public int compare(final CsvValidationError e1, final CsvValidationError e2) {
+                    return Long.compare(e1.getLine(), e2.getLine());
+                }
+            });
+            return result.size() > maxErrors ? result.subList(0, maxErrors) : result;
+        }
+
+        private void endField() {
+            values.add(new String(field.toByteArray(), UTF_8));
+            field.reset();
+        }
+
+        private void endRecord() throws IOException {
+            final Record record = new Record(recordLine, values.toArray(new String[values.size()]), recordError);
+            values.clear();
+            recordEmpty = true;
+            recordError = null;
+            if (columnIndexes == null) {
+                checkHeader(record);
+                return;
+            }
+            chunk.add(record);
+            if (chunk.size() >= CHUNK_ROWS) {
+                submitChunk();
+            }
+        }
+
+        private void checkHeader(final Record header) {
+            if (header.values.length > 0 && header.values[0].startsWith(BOM)) {
+                header.values[0] = header.values[0].substring(BOM.length());
+            }
+            final Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.values.length; i++) {
+                if (positions.put(header.values[i], i) != null) {
+                    addError(new CsvValidationError(header.line, header.values[i], "Duplicate column"));
+                }
+            }
+            final Set<String> known = new HashSet<>();
+            columnIndexes = new int[checks.size()];
+            for (int i = 0; i < checks.size(); i++) {
+                final String column = checks.get(i).column;
+                known.add(column);
+                final Integer position = positions.get(column);
+                if (position == null) {
+                    addError(new CsvValidationError(header.line, column, "Missing column"));
+                } else {
+                    columnIndexes[i] = position;
+                }
+            }
+            for (String column : header.values) {
+                if (!known.contains(column)) {
+                    addError(new CsvValidationError(header.line, column, "Column not defined by the manifest"));
+                }
+            }
+            headerSize = header.values.length;
+            // the records can't be checked against invalid header
+            stopped = errorCount.get() > 0;
+        }
+
+        /**
+         * Submits the chunk to the executor when less than {@link #threads} chunks are being checked, otherwise
+         * checks it in the calling thread. The calling thread never blocks waiting for the executor, which may be
+         * the one running the calling thread.
+         */
+        private void submitChunk() {
+            if (chunk.isEmpty() || stopped) {
+                return;
+            }
+            final ChunkCheck check = new ChunkCheck(chunk);
+            chunk = new ArrayList<>();
+            if (executor == null || !permits.tryAcquire()) {
+                check.checkRecords();
+                return;
+            }
+            for (Iterator<ChunkCheck> it = submitted.iterator(); it.hasNext(); ) {
+                if (it.next().claimed.get()) {
+                    it.remove();
+                }
+            }
+            submitted.add(check);
+            try {
+                executor.execute(check);
+            } catch (RejectedExecutionException e) {
+                check.run();
+            }
+        }
+
+        /**
+         * Checks the submitted chunks not started by the executor yet in the calling thread and waits
+         * for the chunks being checked.
+         */
+        private void awaitChunks() throws InterruptedIOException {
+            for (ChunkCheck check : submitted) {
+                check.run();
+            }
+            submitted.clear();
+            try {
+                permits.acquire(threads);
+                permits.release(threads);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted");
+            }
+        }
+
+        /**
+         * Check of a chunk submitted to the executor, holding a permit until finished. Run just once, either
+         * by the executor or by the validating thread at the end of the validation.
+         */
+        private class ChunkCheck implements Runnable {
+
+            private final List<Record> records;
+            private final AtomicBoolean claimed = new AtomicBoolean();
+
+            private ChunkCheck(final List<Record> records) {
+                this.records = records;
+            }
+
+            @Override
+            public void run() {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    checkRecords();
+                } finally {
+                    permits.release();
+                }
+            }
+
+            private void checkRecords() {
+                try {
+                    Validation.this.checkRecords(records);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+
+        /**
+         * Checks the records up to the maximum number of errors, regardless of the errors found in other chunks,
+         * so the first errors of the whole CSV are known once all preceding chunks are checked.
+         */
+        private void checkRecords(final List<Record> records) {
+            final SimpleDateFormat[] formats = new SimpleDateFormat[checks.size()];
+            for (int i = 0; i < checks.size(); i++) {
+                if (checks.get(i).datePattern != null) {
+                    formats[i] = new SimpleDateFormat(checks.get(i).datePattern);
+                    formats[i].setLenient(false);
+                }
+            }
+            final List<CsvValidationError> found = new ArrayList<>();
+            for (int r = 0; r < records.size() && found.size() < maxErrors; r++) {
+                final Record record = records.get(r);
+                if (record.error != null) {
+                    found.add(new CsvValidationError(record.line, null, record.error));
+                    continue;
+                }
+                if (record.values.length != headerSize) {
+                    found.add(new CsvValidationError(record.line, null,
+                            "Expected " + headerSize + " values, got " + record.values.length));
+                    continue;
+                }
+                for (int i = 0; i < checks.size(); i++) {
+                    final ColumnCheck check = checks.get(i);
+                    final String value = record.values[columnIndexes[i]];
+                    if (value.isEmpty()) {
+                        if (check.referenceKey) {
+                            found.add(new CsvValidationError(record.line, check.column, "Empty reference key value"));
+                        }
+                    } else if (formats[i] != null && !isDate(formats[i], value)) {
+                        found.add(new CsvValidationError(record.line, check.column,
+                                "Value '" + value + "' doesn't match date format '" + check.datePattern + "'"));
+                    }
+                }
+            }
+            errors.addAll(found);
+            errorCount.addAndGet(found.size());
+        }
+
+        private boolean isDate(final SimpleDateFormat format, final String value) {
+            final ParsePosition position = new ParsePosition(0);
+            return format.parse(value, position) != null && position.getIndex() == value.length();
+        }
+
+        private void addError(final CsvValidationError error) {
+            errors.add(error);
+            errorCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+import org.joda.time.ReadableInstant;
+import org.joda.time.ReadablePartial;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Writes rows of a dataset CSV, with the header and the column order given by the parts of the {@link DatasetManifest}.
+ * The values are written by their {@link String#valueOf(Object)} representation, null as empty value, quoted when
+ * needed. The dates ({@link Date} in the default time zone, Joda's {@link ReadableInstant} or {@link ReadablePartial}
+ * like {@link org.joda.time.LocalDate}) of the columns with the date constraint are formatted by the pattern
+ * of the constraint, the dates of the other columns have to be formatted by the caller.
+ *
+ * @see DatasetService#loadDataset(com.gooddata.project.Project, DatasetManifest, CsvProducer)
+ */
+public class CsvWriter {
+
+    private static final String DATE_CONSTRAINT = "date";
+
+    private final Writer writer;
+    private final List<String> columns;
+    private final DateTimeFormatter[] dateFormats;
+    private long rows;
+
+    CsvWriter(final Writer writer, final DatasetManifest manifest) throws IOException {
+        this.writer = notNull(writer, "writer");
+        this.columns = Collections.unmodifiableList(getColumns(manifest));
+        this.dateFormats = getDateFormats(manifest);
+        writeValues(columns.toArray());
+    }
+
+    /**
+     * Returns columns of the manifest parts in their order
+     *
+     * @param manifest dataset manifest
+     * @return column names
+     * @throws IllegalArgumentException when the manifest has no parts
+     */
+    static List<String> getColumns(final DatasetManifest manifest) {
+        notNull(manifest, "manifest");
+        if (manifest.getParts() == null || manifest.getParts().isEmpty()) {
+            throw new IllegalArgumentException("Manifest of dataset '" + manifest.getDataSet() + "' has no parts");
+        }
+        final List<String> columns = new ArrayList<>(manifest.getParts().size());
+        for (DatasetManifest.Part part : manifest.getParts()) {
+            columns.add(notNull(part.getColumnName(), "part columnName"));
+        }
+        return columns;
+    }
+
+    /**
+     * Returns formats of the date columns given by the date constraints of the manifest parts, null for the other columns
+     */
+    private static DateTimeFormatter[] getDateFormats(final DatasetManifest manifest) {
+        final DateTimeFormatter[] formats = new DateTimeFormatter[manifest.getParts().size()];
+        for (int i = 0; i < formats.length; i++) {
+            final Map<String, String> constraints = manifest.getParts().get(i).getConstraints();
+            if (constraints != null && constraints.get(DATE_CONSTRAINT) != null) {
+                formats[i] = DateTimeFormat.forPattern(constraints.get(DATE_CONSTRAINT));
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * @return column names in the order of the values of the rows
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return number of rows written so far, without the header
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes row of the given values.
+     *
+     * @param values values in the order of the {@link #getColumns() columns}
+     * @throws IOException when the row can't be written
+     * @throws IllegalArgumentException when the number of values doesn't match the number of columns
+     */
+    public void writeRow(final Object... values) throws IOException {
+        notNull(values, "values");
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        }
+        writeValues(formatDates(values));
+        rows++;
+    }
+
+    /**
+     * Writes row of the values keyed by the column names, missing values are written empty.
+     *
+     * @param values values by column names
+     * @throws IOException when the row can't be written
+     */
+    public void writeRow(final Map<String, ?> values) throws IOException {
+        notNull(values, "values");
+        final Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(columns.get(i));
+        }
+        writeValues(formatDates(row));
+        rows++;
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private Object[] formatDates(final Object[] values) {
+        final Object[] formatted = values.clone();
+        for (int i = 0; i < formatted.length; i++) {
+            final DateTimeFormatter format = dateFormats[i];
+            if (format == null) {
+                continue;
+            }
+            if (formatted[i] instanceof Date) {
+                formatted[i] = format.print(((Date) formatted[i]).getTime());
+            } else if (formatted[i] instanceof ReadableInstant) {
+                formatted[i] = format.print((ReadableInstant) formatted[i]);
+            } else if (formatted[i] instanceof ReadablePartial) {
+                formatted[i] = format.print((ReadablePartial) formatted[i]);
+            }
+        }
+        return formatted;
+    }
+
+    private void writeValues(final Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeValue(String.valueOf(values[i]));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(final String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.dataset;
+
+import com.gooddata.AsyncResult;
+import com.gooddata.FutureResult;
+import com.gooddata.GoodDataException;
+import com.gooddata.project.Project;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Loads consecutive batches of datasets into single project. Each batch is uploaded to its own staging area
+ * directory while the ETL pull of the previous batch is still running, the pulls themselves run one after another
+ * as required by the server.
+ * <p>
+ * Calls of {@link #load(Collection)} are serialized, the pipeline is intended to be fed by single thread.
+ * Failure of a batch doesn't stop the following ones, it's reported by the result of the failed batch only.
+ * Cancelling the result of a batch stops polling on the client only, so the next pull is still triggered only
+ * after the cancelled one finishes on the server. The same applies when the polling of a batch fails for other reason
+ * than the failed pull itself (e.g. the server is temporarily unavailable). When that can't be found out, the pipeline fails
+ * and rejects any further batch.
+ *
+ * @see DatasetService#createLoadPipeline(Project)
+ */
+public class DatasetLoadPipeline {
+
+    private final DatasetService service;
+    private final Project project;
+    private AsyncResult<Void> previous;
+    private String previousPollingUri;
+    private List<String> previousDatasets;
+    private DatasetException failure;
+
+    DatasetLoadPipeline(final DatasetService service, final Project project) {
+        this.service = service;
+        this.project = project;
+    }
+
+    /**
+     * Loads the batch of datasets, see {@link #load(Collection)}.
+     *
+     * @param datasets dataset manifests
+     * @return {@link FutureResult} of the ETL pull of the batch
+     */
+    public FutureResult<Void> load(final DatasetManifest... datasets) {
+        return load(asList(datasets));
+    }
+
+    /**
+     * Uploads the batch of datasets to the staging area, waits until the ETL pull of the previous batch finishes
+     * and triggers the pull of this batch. The call returns as soon as the pull is triggered, so the next batch
+     * can be uploaded while this one is being loaded. The pull is polled in the background
+     * (see {@link FutureResult#pollAsync()}).
+     *
+     * @param datasets dataset manifests
+     * @return {@link FutureResult} of the ETL pull of the batch, which can throw {@link DatasetException}
+     * in case the pull fails
+     * @throws DatasetException if there is a problem to serialize manifest or upload dataset or the pipeline failed
+     * to await the previous batch
+     */
+    public synchronized FutureResult<Void> load(final Collection<DatasetManifest> datasets) {
+        checkFailure();
+        final Path dirPath = service.stageDatasets(project, datasets);
+        try {
+            awaitPrevious();
+        } catch (RuntimeException e) {
+            service.deleteQuietly(dirPath);
+            throw e;
+        }
+        final FutureResult<Void> result = service.pullStaged(project, dirPath, datasets);
+        previous = result.pollAsync();
+        previousPollingUri = result.getPollingUri();
+        previousDatasets = DatasetService.getNames(datasets);
+        return result;
+    }
+
+    /**
+     * Waits until the ETL pull of the last batch finishes.
+     *
+     * @throws DatasetException if the pipeline failed to await the previous batch
+     */
+    public synchronized void await() {
+        checkFailure();
+        awaitPrevious();
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void awaitPrevious() {
+        if (previous != null) {
+            try {
+                previous.get();
+            } catch (ExecutionException e) {
+                // the failure itself is reported by the result of the previous batch
+                if (!isFailedOnServer(e.getCause())) {
+                    awaitOnServer("failed");
+                }
+            } catch (CancellationException e) {
+                awaitOnServer("cancelled");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GoodDataException("interrupted", e);
+            }
+            previous = null;
+        }
+    }
+
+    /**
+     * Only the failed status of the pull task has no cause, any other failure (e.g. of the transport) is wrapped.
+     */
+    private static boolean isFailedOnServer(final Throwable failure) {
+        return failure instanceof DatasetException && failure.getCause() == null;
+    }
+
+    /**
+     * The polling of the previous pull was cancelled or failed on the client, but the pull itself may keep running
+     * on the server.
+     */
+    private void awaitOnServer(final String reason) {
+        try {
+            service.awaitPull(previousPollingUri).get();
+        } catch (GoodDataException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            failure = new DatasetException("Unable to await " + reason + " ETL pull " + previousPollingUri,
+                    previousDatasets, e);
+            throw failure;
+        }
+    }
+}
@@ -5,8 +5,10 @@ package com.gooddata.dataset;
 
 import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.gdc.DataStoreException;
@@ -15,18 +17,37 @@ import com.gooddata.gdc.TaskStatus;
 import com.gooddata.gdc.UriResponse;
 import com.gooddata.project.Project;
 import org.apache.commons.lang.RandomStringUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import java.util.concurrent.Callable;
 
 import static com.gooddata.util.Validate.notEmpty;
 import static com.gooddata.util.Validate.notNull;
@@ -35,6 +56,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.springframework.util.Assert.isTrue;
 import static org.springframework.util.StringUtils.isEmpty;
 
 /**
@@ -43,13 +65,45 @@ import static org.springframework.util.StringUtils.isEmpty;
 public class DatasetService extends AbstractService {
 
     private static final String MANIFEST_FILE_NAME = "upload_info.json";
+    private static final String ZIP_FILE_NAME = "upload.zip";
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
     private static final String ETL_PULL_DEFAULT_ERROR_MESSAGE = "ETL Pull failed with status %s";
 
     private final DataStoreService dataStoreService;
 
+    private final int uploadThreads;
+
     public DatasetService(RestTemplate restTemplate, DataStoreService dataStoreService) {
         super(restTemplate);
         this.dataStoreService = notNull(dataStoreService, "dataStoreService");
+        this.uploadThreads = 1;
+    }
+
+    /**
+     * Constructs service for dataset management.
+     *
+     * @param restTemplate     RESTful HTTP Spring template
+     * @param dataStoreService service used to upload datasets to the staging area
+     * @param pollScheduler    scheduler driving asynchronous polling
+     */
+    public DatasetService(RestTemplate restTemplate, DataStoreService dataStoreService, PollScheduler pollScheduler) {
+        this(restTemplate, dataStoreService, pollScheduler, 1);
+    }
+
+    /**
+     * Constructs service for dataset management.
+     *
+     * @param restTemplate     RESTful HTTP Spring template
+     * @param dataStoreService service used to upload datasets to the staging area
+     * @param pollScheduler    scheduler driving asynchronous polling and concurrent uploads
+     * @param uploadThreads    maximum number of datasets uploaded concurrently by {@link #loadDatasets(Project, Collection)}
+     */
+    public DatasetService(RestTemplate restTemplate, DataStoreService dataStoreService, PollScheduler pollScheduler,
+                          int uploadThreads) {
+        super(restTemplate, pollScheduler);
+        this.dataStoreService = notNull(dataStoreService, "dataStoreService");
+        isTrue(uploadThreads > 0, "uploadThreads must be greater than zero");
+        this.uploadThreads = uploadThreads;
     }
 
     /**
@@ -109,6 +163,165 @@ public class DatasetService extends AbstractService {
         }
     }
 
+    /**
+     * Loads dataset into platform, uploading the rows as they are produced. The rows are written as CSV with
+     * the columns of the manifest parts, compressed to zip archive together with the manifest and uploaded
+     * to staging area through a bounded buffer, so producing, compressing and uploading overlap and no temporary file
+     * is needed. The producer is blocked while the upload catches up. Then the ETL pull of the archive is triggered.
+     * <p>
+     * The producer runs in the calling thread, the upload is done by a new dedicated thread, so the pipe is always
+     * read no matter how busy the asynchronous executor is. Uploaded archive is deleted from staging area
+     * when finished or when the load fails.
+     *
+     * @param project  project to which dataset belongs
+     * @param manifest dataset manifest with the parts defining the columns
+     * @param producer producer of the dataset rows
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link com.gooddata.dataset.DatasetException}
+     * in case the ETL pull task fails
+     * @throws com.gooddata.dataset.DatasetException if the producer fails or there is a problem to serialize manifest
+     * or upload dataset
+     */
+    public FutureResult<Void> loadDataset(final Project project, final DatasetManifest manifest,
+                                          final CsvProducer producer) {
+        notNull(project, "project");
+        notNull(manifest, "manifest");
+        notNull(producer, "producer");
+        notEmpty(manifest.getFile(), "manifest.file");
+        CsvWriter.getColumns(manifest);
+
+        final Path dirPath = Paths.get("/", project.getId() + "_" + RandomStringUtils.randomAlphabetic(3), "/");
+        final Path zipPath = dirPath.resolve(ZIP_FILE_NAME);
+        final PipedInputStream pipeIn = new PipedInputStream(PIPE_BUFFER_SIZE);
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final IOException abort = new IOException("Producing of the dataset failed");
+        final FutureTask<Void> upload = new FutureTask<>(new Callable<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    dataStoreService.upload(zipPath.toString(), new FilterInputStream(pipeIn) {
+                        @Override
+                        public int read() throws IOException {
+                            return checkAborted(super.read());
+                        }
+
+                        @Override
+                        public int read(final byte[] b, final int off, final int len) throws IOException {
+                            return checkAborted(super.read(b, off, len));
+                        }
+
+                        private int checkAborted(final int read) throws IOException {
+                            if (read < 0 && aborted.get()) {
+                                throw abort;
+                            }
+                            return read;
+                        }
+                    });
+                } finally {
+                    closeQuietly(pipeIn);
+                }
+                return null;
+            }
+        });
+
+        final PipedOutputStream pipeOut;
+        try {
+            pipeOut = new PipedOutputStream(pipeIn);
+        } catch (IOException e) {
+            throw new DatasetException("Unable to load", manifest.getDataSet(), e);
+        }
+        final Thread uploader = new Thread(upload, "gooddata-dataset-upload");
+        uploader.setDaemon(true);
+        uploader.start();
+
+        boolean uploaded = false;
+        try {
+            try {
+                writeZip(pipeOut, manifest, producer);
+                pipeOut.close();
+            } catch (IOException | RuntimeException e) {
+                aborted.set(true);
+                closeQuietly(pipeOut);
+                final RuntimeException uploadFailure = awaitAbortedUpload(upload, abort);
+                if (uploadFailure != null) {
+                    uploadFailure.addSuppressed(e);
+                    throw uploadFailure;
+                }
+                throw e;
+            }
+            awaitUpload(upload);
+            uploaded = true;
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof DatasetException) {
+                throw (DatasetException) e;
+            }
+            throw new DatasetException("Unable to load", manifest.getDataSet(), e);
+        } finally {
+            if (!uploaded) {
+                deleteQuietly(dirPath);
+            }
+        }
+        try {
+            return pullLoad(project, zipPath, dirPath, singletonList(manifest.getDataSet()));
+        } catch (GoodDataException | RestClientException e) {
+            deleteQuietly(dirPath);
+            throw new DatasetException("Unable to load", manifest.getDataSet(), e);
+        }
+    }
+
+    private void writeZip(final OutputStream output, final DatasetManifest manifest, final CsvProducer producer)
+            throws IOException {
+        final ZipOutputStream zip = new ZipOutputStream(output);
+        zip.putNextEntry(new ZipEntry(MANIFEST_FILE_NAME));
+        zip.write(mapper.writeValueAsBytes(manifest));
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(manifest.getFile()));
+        final CsvWriter writer = new CsvWriter(new BufferedWriter(new OutputStreamWriter(zip, UTF_8)), manifest);
+        producer.produce(writer);
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    /**
+     * Waits for the upload, rethrowing its failure
+     */
+    private static void awaitUpload(final FutureTask<Void> upload) {
+        try {
+            upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            upload.cancel(true);
+            throw new GoodDataException("interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GoodDataException("Unable to upload", e.getCause());
+        }
+    }
+
+    /**
+     * Waits for the aborted upload to finish. Its failure caused by the abort is ignored, any other is returned
+     * as the upload failed on its own (e.g. unauthorized) and the producer failed only because the pipe got closed.
+     */
+    private static RuntimeException awaitAbortedUpload(final FutureTask<Void> upload, final IOException abort) {
+        try {
+            awaitUpload(upload);
+            return null;
+        } catch (RuntimeException e) {
+            return ExceptionUtils.getThrowableList(e).contains(abort) ? null : e;
+        }
+    }
+
+    private static void closeQuietly(final Closeable stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+    }
+
     /**
      * Gets DatasetManifest (using {@link #getDatasetManifest(com.gooddata.project.Project, String)}
      * first and then calls {@link #loadDataset(com.gooddata.project.Project, DatasetManifest, java.io.InputStream)}
@@ -125,6 +338,53 @@ public class DatasetService extends AbstractService {
         return loadDataset(project, getDatasetManifest(project, datasetId), dataset);
     }
 
+    /**
+     * Loads dataset into platform in the background, the same way as
+     * {@link #loadDataset(com.gooddata.project.Project, DatasetManifest, java.io.InputStream)} does. The upload
+     * is done using executor set by {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)},
+     * the ETL pull is polled asynchronously, so no thread is blocked waiting for the result.
+     *
+     * @param project  project to which dataset belongs
+     * @param manifest dataset manifest
+     * @param dataset  dataset to upload
+     * @return {@link AsyncResult} of the task, failed with {@link com.gooddata.dataset.DatasetException}
+     * in case the upload or the ETL pull task fails
+     */
+    public AsyncResult<Void> loadDatasetAsync(final Project project, final DatasetManifest manifest,
+                                              final InputStream dataset) {
+        notNull(project, "project");
+        notNull(dataset, "dataset");
+        notNull(manifest, "manifest");
+        return executeAsync(new Callable<FutureResult<Void>>() {
+            @Override
+            public FutureResult<Void> call() {
+                return loadDataset(project, manifest, dataset);
+            }
+        });
+    }
+
+    /**
+     * Gets DatasetManifest and loads dataset into platform in the background
+     * (see {@link #loadDatasetAsync(com.gooddata.project.Project, DatasetManifest, java.io.InputStream)}).
+     *
+     * @param project   project to which dataset belongs
+     * @param datasetId datasetId to obtain a manifest
+     * @param dataset   dataset to upload
+     * @return {@link AsyncResult} of the task
+     */
+    public AsyncResult<Void> loadDatasetAsync(final Project project, final String datasetId,
+                                              final InputStream dataset) {
+        notNull(project, "project");
+        notEmpty(datasetId, "datasetId");
+        notNull(dataset, "dataset");
+        return executeAsync(new Callable<FutureResult<Void>>() {
+            @Override
+            public FutureResult<Void> call() {
+                return loadDataset(project, datasetId, dataset);
+            }
+        });
+    }
+
     public FutureResult<Void> loadDatasets(final Project project, DatasetManifest... datasets) {
         return loadDatasets(project, asList(datasets));
     }
@@ -133,6 +393,10 @@ public class DatasetService extends AbstractService {
      * Loads datasets into platform. Uploads given datasets and their manifests to staging area and triggers ETL pull.
      * The call is asynchronous returning {@link com.gooddata.FutureResult} to let caller wait for results.
      * Uploaded files are deleted from staging area when finished.
+     * <p>
+     * The datasets are uploaded concurrently, up to the {@link com.gooddata.GoodDataSettings#getUploadThreads()}
+     * at once. When any upload fails, the datasets not being uploaded yet are skipped. The manifest is uploaded
+     * and the ETL pull triggered once all datasets are uploaded.
      *
      * @param project  project to which dataset belongs
      * @param datasets map dataset manifests
@@ -140,30 +404,186 @@ public class DatasetService extends AbstractService {
      * in case the ETL pull task fails
      * @throws com.gooddata.dataset.DatasetException if there is a problem to serialize manifest or upload dataset
      * @see <a href="https://developer.gooddata.com/article/multiload-of-csv-data">batch upload reference</a>
+     * @see #createLoadPipeline(Project)
      */
     public FutureResult<Void> loadDatasets(final Project project, final Collection<DatasetManifest> datasets) {
+        return pullStaged(project, stageDatasets(project, datasets), datasets);
+    }
+
+    /**
+     * Creates loader of consecutive batches of datasets into the given project, uploading each batch while the ETL
+     * pull of the previous one is running.
+     *
+     * @param project project to load the datasets to
+     * @return new pipeline
+     */
+    public DatasetLoadPipeline createLoadPipeline(final Project project) {
+        return new DatasetLoadPipeline(this, notNull(project, "project"));
+    }
+
+    /**
+     * Creates validator of the CSV of the given dataset checking the records by the executor set by
+     * {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)}.
+     * Wrap the dataset source by {@link CsvValidator#validating(InputStream)} to validate it during the upload,
+     * the load then fails before the ETL pull is triggered.
+     *
+     * @param manifest  dataset manifest
+     * @param maxErrors number of errors after which the validation stops
+     * @param threads   maximum number of chunks of the CSV checked concurrently
+     * @return new validator
+     */
+    public CsvValidator createCsvValidator(final DatasetManifest manifest, final int maxErrors, final int threads) {
+        return new CsvValidator(manifest, maxErrors, getAsyncExecutor(), threads);
+    }
+
+    /**
+     * Uploads the datasets and their manifest to a new directory of the staging area.
+     *
+     * @param project  project to which dataset belongs
+     * @param datasets dataset manifests
+     * @return path of the directory
+     * @throws com.gooddata.dataset.DatasetException if there is a problem to serialize manifest or upload dataset
+     */
+    Path stageDatasets(final Project project, final Collection<DatasetManifest> datasets) {
         notNull(project, "project");
         validateUploadManifests(datasets);
-        final List<String> datasetsNames = new ArrayList<>(datasets.size());
+        final Path dirPath = Paths.get("/", project.getId() + "_" + RandomStringUtils.randomAlphabetic(3), "/");
+        boolean staged = false;
         try {
-            final Path dirPath = Paths.get("/", project.getId() + "_" + RandomStringUtils.randomAlphabetic(3), "/");
-            for (DatasetManifest datasetManifest : datasets) {
-                datasetsNames.add(datasetManifest.getDataSet());
-                dataStoreService.upload(dirPath.resolve(datasetManifest.getFile()).toString(), datasetManifest.getSource());
-            }
+            uploadSources(dirPath, datasets);
 
             final String manifestJson = mapper.writeValueAsString(new DatasetManifests(datasets));
             final ByteArrayInputStream inputStream = new ByteArrayInputStream(manifestJson.getBytes(UTF_8));
             dataStoreService.upload(dirPath.resolve(MANIFEST_FILE_NAME).toString(), inputStream);
-
-            return pullLoad(project, dirPath, datasetsNames);
+            staged = true;
+            return dirPath;
         } catch (IOException e) {
-            throw new DatasetException("Unable to serialize manifest", datasetsNames, e);
+            throw new DatasetException("Unable to serialize manifest", getNames(datasets), e);
         } catch (DataStoreException | GoodDataRestException | RestClientException e) {
+            throw new DatasetException("Unable to load", getNames(datasets), e);
+        } finally {
+            if (!staged) {
+                deleteQuietly(dirPath);
+            }
+        }
+    }
+
+    /**
+     * Triggers ETL pull of the datasets uploaded by {@link #stageDatasets(Project, Collection)}.
+     *
+     * @param project  project to which dataset belongs
+     * @param dirPath  path of the staging area directory
+     * @param datasets dataset manifests
+     * @return {@link com.gooddata.FutureResult} of the task
+     */
+    FutureResult<Void> pullStaged(final Project project, final Path dirPath, final Collection<DatasetManifest> datasets) {
+        final List<String> datasetsNames = getNames(datasets);
+        try {
+            return pullLoad(project, dirPath, datasetsNames);
+        } catch (GoodDataRestException | RestClientException e) {
+            deleteQuietly(dirPath);
             throw new DatasetException("Unable to load", datasetsNames, e);
         }
     }
 
+    /**
+     * Polls the ETL pull task until it finishes on the server, whether it succeeds or not. Unlike the result
+     * of the pull, nothing is deleted when finished.
+     *
+     * @param pollingUri polling URI of the ETL pull task
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link com.gooddata.GoodDataException}
+     * in case the task status can't be polled
+     */
+    FutureResult<Void> awaitPull(final String pollingUri) {
+        return new PollResult<>(this, new AbstractPollHandler<TaskStatus, Void>(pollingUri, TaskStatus.class, Void.class) {
+            @Override
+            public void handlePollResult(TaskStatus pollResult) {
+                setResult(null);
+            }
+
+            @Override
+            public void handlePollException(final GoodDataRestException e) {
+                throw new GoodDataException("Unable to poll ETL pull task " + pollingUri, e);
+            }
+        });
+    }
+
+    /**
+     * Deletes the staging area directory, ignoring the failure as there is nothing more to do about it.
+     */
+    void deleteQuietly(final Path dirPath) {
+        try {
+            dataStoreService.delete(dirPath.toString());
+        } catch (DataStoreException ignored) {
+            // todo log?
+        }
+    }
+
+    static List<String> getNames(final Collection<DatasetManifest> datasets) {
+        final List<String> datasetsNames = new ArrayList<>(datasets.size());
+        for (DatasetManifest datasetManifest : datasets) {
+            datasetsNames.add(datasetManifest.getDataSet());
+        }
+        return datasetsNames;
+    }
+
+    /**
+     * Uploads the sources of the datasets by up to {@link #uploadThreads} workers, the calling thread being one
+     * of them, so the uploads proceed even when the asynchronous executor is busy. The first failure stops taking
+     * further datasets, interrupts the other workers and is rethrown once the uploads in progress are finished,
+     * so the staging area directory can be cleaned up.
+     *
+     * @throws DataStoreException when an upload fails
+     * @throws DatasetException   when interrupted or a worker fails unexpectedly
+     */
+    private void uploadSources(final Path dirPath, final Collection<DatasetManifest> datasets) {
+        final Queue<DatasetManifest> pending = new ConcurrentLinkedQueue<>(datasets);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final List<UploadWorker> helpers = new ArrayList<>();
+        for (int i = 1; i < Math.min(uploadThreads, datasets.size()); i++) {
+            final UploadWorker helper = new UploadWorker(dirPath, pending, failure);
+            try {
+                getAsyncExecutor().execute(helper.task);
+                helpers.add(helper);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        new UploadWorker(dirPath, pending, failure).task.run();
+
+        for (UploadWorker helper : helpers) {
+            if (failure.get() != null) {
+                break;
+            }
+            // helper not started yet has nothing to do any more
+            if (helper.claim()) {
+                continue;
+            }
+            try {
+                helper.task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new DatasetException("Unable to load", getNames(datasets), e));
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, new DatasetException("Unable to load", getNames(datasets), e.getCause()));
+            }
+        }
+        if (failure.get() == null && !pending.isEmpty()) {
+            // the calling thread was interrupted while uploading
+            failure.compareAndSet(null, new DatasetException("Unable to load", getNames(datasets),
+                    new InterruptedException()));
+        }
+        if (failure.get() != null) {
+            for (UploadWorker helper : helpers) {
+                helper.task.cancel(true);
+            }
+            for (UploadWorker helper : helpers) {
+                helper.awaitFinished();
+            }
+            throw failure.get();
+        }
+    }
+
     private void validateUploadManifests(final Collection<DatasetManifest> datasets) {
         notEmpty(datasets, "datasets");
         for (DatasetManifest datasetManifest : datasets) {
@@ -184,8 +604,16 @@ public class DatasetService extends AbstractService {
     }
 
     private FutureResult<Void> pullLoad(Project project, final Path dirPath, final Collection<String> datasets) {
+        return pullLoad(project, dirPath, dirPath, datasets);
+    }
+
+    /**
+     * Triggers ETL pull of the given staging area directory or zip archive, the directory is deleted when finished.
+     */
+    private FutureResult<Void> pullLoad(Project project, final Path pullPath, final Path dirPath,
+                                        final Collection<String> datasets) {
         final PullTask pullTask = restTemplate
-                .postForObject(Pull.URI, new Pull(dirPath.toString()), PullTask.class, project.getId());
+                .postForObject(Pull.URI, new Pull(pullPath.toString()), PullTask.class, project.getId());
 
         return new PollResult<>(this, new AbstractPollHandler<TaskStatus, Void>(pullTask.getPollUri(), TaskStatus.class, Void.class) {
             @Override
@@ -194,6 +622,7 @@ public class DatasetService extends AbstractService {
                     final String message = isEmpty(pollResult.getMessages())
                             ? String.format(ETL_PULL_DEFAULT_ERROR_MESSAGE, pollResult.getStatus())
                             : pollResult.getMessages().toString();
+                    // no cause tells the failed pull from the failed polling, see DatasetLoadPipeline
                     throw new DatasetException(message, datasets);
                 }
                 setResult(null);
@@ -206,11 +635,12 @@ public class DatasetService extends AbstractService {
 
             @Override
             protected void onFinish() {
-                try {
-                    dataStoreService.delete(dirPath.toString());
-                } catch (DataStoreException ignored) {
-                    // todo log?
-                }
+                deleteQuietly(dirPath);
+            }
+
+            @Override
+            protected void onCancel() {
+                onFinish();
             }
         });
     }
@@ -324,4 +754,66 @@ public class DatasetService extends AbstractService {
             }
         });
     }
+
+    /**
+     * Uploads the pending datasets until there is none left or any upload fails.
+     */
+    private class UploadWorker implements Runnable {
+
+        private final Path dirPath;
+        private final Queue<DatasetManifest> pending;
+        private final AtomicReference<RuntimeException> failure;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private final FutureTask<Void> task = new FutureTask<>(this, null);
+
+        private UploadWorker(final Path dirPath, final Queue<DatasetManifest> pending,
+                             final AtomicReference<RuntimeException> failure) {
+            this.dirPath = dirPath;
+            this.pending = pending;
+            this.failure = failure;
+        }
+
+        /**
+         * @return true when the worker wasn't started yet and won't ever be
+         */
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Waits until the upload in progress is finished, if the worker was started at all. Returns at once when
+         * interrupted, keeping the interrupt flag set.
+         */
+        private void awaitFinished() {
+            if (claim()) {
+                return;
+            }
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!claim()) {
+                return;
+            }
+            try {
+                DatasetManifest manifest;
+                while (failure.get() == null && !Thread.currentThread().isInterrupted()
+                        && (manifest = pending.poll()) != null) {
+                    try {
+                        dataStoreService.upload(dirPath.resolve(manifest.getFile()).toString(), manifest.getSource());
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+    }
 }
@@ -32,25 +32,46 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Properties;
 
 import static com.gooddata.util.Validate.notEmpty;
 import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
 
 /**
  * Uploads, downloads, deletes, ... at datastore
  */
 public class DataStoreService {
 
+    static final String JOURNAL_FILE_NAME = ".gooddata-upload";
+
+    private static final int DEFAULT_UPLOAD_ATTEMPTS = 5;
+    private static final long DEFAULT_UPLOAD_BACKOFF_MILLIS = 1000;
+    private static final long MAX_UPLOAD_BACKOFF_MILLIS = 30 * 1000;
+    private static final long PROGRESS_STEP = 1024 * 1024;
+
     private final Sardine sardine;
     private final GdcService gdcService;
     private final URI gdcUri;
     private final RestTemplate restTemplate;
 
     private UriPrefixer prefixer;
+    private int uploadAttempts = DEFAULT_UPLOAD_ATTEMPTS;
+    private long uploadBackoffMillis = DEFAULT_UPLOAD_BACKOFF_MILLIS;
 
 
     /**
@@ -101,15 +122,317 @@ public class DataStoreService {
     private void upload(URI url, InputStream stream) {
         try {
             sardine.put(url.toString(), stream);
-        } catch (SardineException e) {
-            if (HttpStatus.INTERNAL_SERVER_ERROR.value() == e.getStatusCode()) {
-                throw new DataStoreException("Got 500 while uploading to " + url + "."
+        } catch (IOException e) {
+            throw uploadFailed(url, e);
+        }
+    }
+
+    private static DataStoreException uploadFailed(final URI url, final IOException e) {
+        if (e instanceof SardineException) {
+            final int statusCode = ((SardineException) e).getStatusCode();
+            if (HttpStatus.INTERNAL_SERVER_ERROR.value() == statusCode) {
+                return new DataStoreException("Got 500 while uploading to " + url + "."
                         + "\nThis can be known limitation, see https://github.com/martiner/gooddata-java/wiki/Known-limitations", e);
             } else {
-                throw new DataStoreException("Unable to upload to " + url + " got status " + e.getStatusCode(), e);
+                return new DataStoreException("Unable to upload to " + url + " got status " + statusCode, e);
+            }
+        }
+        return new DataStoreException("Unable to upload to " + url, e);
+    }
+
+    /**
+     * Sets how the uploads of files are retried, see {@link #uploadWithRetry(String, Path, UploadProgressListener)}.
+     * The delay before the retry doubles with each attempt, up to 30 seconds.
+     *
+     * @param attempts      maximum number of attempts to upload single file, defaults to 5
+     * @param backoffMillis delay before the first retry in milliseconds, defaults to 1000
+     */
+    public void setUploadRetry(final int attempts, final long backoffMillis) {
+        isTrue(attempts > 0, "attempts must be greater than zero");
+        isTrue(backoffMillis >= 0, "backoffMillis must not be negative");
+        this.uploadAttempts = attempts;
+        this.uploadBackoffMillis = backoffMillis;
+    }
+
+    /**
+     * Uploads given file to given datastore path. Failed upload is retried with increasing delay when the connection
+     * fails or the datastore responds with server error (see {@link #setUploadRetry(int, long)}), failure to read
+     * the file is not retried. The file is always uploaded whole, each retry starts from its first byte again,
+     * as WebDAV doesn't allow to append to existing file. Split large data to more files uploaded by
+     * {@link #uploadDirectory(String, Path, UploadProgressListener)} to limit the data sent again.
+     *
+     * @param path     path where to upload to
+     * @param file     file to upload
+     * @param listener listener of the upload progress, may be null
+     * @throws com.gooddata.gdc.DataStoreException in case upload failed even after retries
+     */
+    public void uploadWithRetry(final String path, final Path file, final UploadProgressListener listener) {
+        notEmpty(path, "path");
+        notNull(file, "file");
+        final Progress progress = new Progress(listener, size(file));
+        putWithRetry(path, file, progress);
+    }
+
+    /**
+     * Uploads all regular files of given local directory (not recursively) to given datastore directory,
+     * each file retried separately (see {@link #uploadWithRetry(String, Path, UploadProgressListener)}).
+     * <p>
+     * Uploaded files are recorded in a journal file ({@value #JOURNAL_FILE_NAME}) in the local directory,
+     * so when the upload is repeated after failure or restart of the process, the files uploaded before and not
+     * modified since are skipped. The file being uploaded when the upload failed is uploaded whole again.
+     * The journal is deleted once all files are uploaded.
+     *
+     * @param dirPath   datastore directory where to upload to
+     * @param directory local directory with the files to upload
+     * @param listener  listener of the upload progress, may be null
+     * @throws com.gooddata.gdc.DataStoreException in case upload failed even after retries or the journal can't be
+     * accessed
+     */
+    public void uploadDirectory(final String dirPath, final Path directory, final UploadProgressListener listener) {
+        notEmpty(dirPath, "dirPath");
+        notNull(directory, "directory");
+        final String prefix = dirPath.endsWith("/") ? dirPath : dirPath + "/";
+        final Path journalPath = directory.resolve(JOURNAL_FILE_NAME);
+        final List<Path> files = new ArrayList<>();
+        long totalBytes = 0;
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file) && !file.getFileName().toString().equals(JOURNAL_FILE_NAME)) {
+                    files.add(file);
+                    totalBytes += Files.size(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new DataStoreException("Unable to list files of " + directory, e);
+        }
+        Collections.sort(files);
+
+        final Properties journal = readJournal(journalPath);
+        final Progress progress = new Progress(listener, totalBytes);
+        for (Path file : files) {
+            final String path = prefix + file.getFileName();
+            final String record = journalRecord(getUri(path), file);
+            if (record.equals(journal.getProperty(file.getFileName().toString()))) {
+                progress.skipped(path, size(file));
+                continue;
+            }
+            putWithRetry(path, file, progress);
+            journal.setProperty(file.getFileName().toString(), record);
+            writeJournal(journalPath, journal);
+        }
+        try {
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            throw new DataStoreException("Unable to delete upload journal " + journalPath, e);
+        }
+    }
+
+    private void putWithRetry(final String path, final Path file, final Progress progress) {
+        final URI url = getUri(path);
+        final long length = size(file);
+        long backoff = uploadBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            final InputStream fileStream;
+            try {
+                fileStream = Files.newInputStream(file);
+            } catch (IOException e) {
+                throw new DataStoreException("Unable to read " + file, e);
+            }
+            try (final InputStream stream = progress.track(path, new FileStream(fileStream))) {
+                sardine.put(url.toString(), stream, null, true, length);
+                progress.finished(path);
+                return;
+            } catch (IOException e) {
+                progress.failed();
+                final FileReadException readFailure = findReadFailure(e);
+                if (readFailure != null) {
+                    throw new DataStoreException("Unable to read " + file, readFailure.getCause());
+                }
+                if (attempt >= uploadAttempts || !isRetryable(e)) {
+                    throw uploadFailed(url, e);
+                }
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataStoreException("Upload to " + url + " interrupted", e);
+            }
+            backoff = Math.min(backoff * 2, MAX_UPLOAD_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Server errors (5xx) and transport failures are worth retrying, client errors (4xx) are not
+     */
+    private static boolean isRetryable(final IOException e) {
+        if (e instanceof SardineException) {
+            return ((SardineException) e).getStatusCode() >= 500;
+        }
+        return !(e instanceof FileSystemException);
+    }
+
+    private static FileReadException findReadFailure(final IOException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FileReadException) {
+                return (FileReadException) cause;
+            }
+        }
+        return null;
+    }
+
+    private static long size(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new DataStoreException("Unable to read " + file, e);
+        }
+    }
+
+    private static String journalRecord(final URI url, final Path file) {
+        try {
+            return url + " " + Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new DataStoreException("Unable to read " + file, e);
+        }
+    }
+
+    private static Properties readJournal(final Path journalPath) {
+        final Properties journal = new Properties();
+        if (Files.exists(journalPath)) {
+            try (final InputStream stream = Files.newInputStream(journalPath)) {
+                journal.load(stream);
+            } catch (IOException e) {
+                throw new DataStoreException("Unable to read upload journal " + journalPath, e);
             }
+        }
+        return journal;
+    }
+
+    /**
+     * Writes the journal to temporary file first and moves it over the previous one, so it's never left partially
+     * written
+     */
+    private static void writeJournal(final Path journalPath, final Properties journal) {
+        final Path tempPath = journalPath.resolveSibling(JOURNAL_FILE_NAME + ".tmp");
+        try {
+            try (final OutputStream stream = Files.newOutputStream(tempPath)) {
+                journal.store(stream, null);
+            }
+            Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            throw new DataStoreException("Unable to upload to " + url, e);
+            throw new DataStoreException("Unable to write upload journal " + journalPath, e);
+        }
+    }
+
+    /**
+     * Marks failure to read the uploaded file, so it's told apart from the transport failures
+     */
+    private static class FileReadException extends IOException {
+        private FileReadException(final IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Stream of the uploaded file, failing with {@link FileReadException} when the file can't be read
+     */
+    private static class FileStream extends FilterInputStream {
+        private FileStream(final InputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw new FileReadException(e);
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                throw new FileReadException(e);
+            }
+        }
+    }
+
+    /**
+     * Tracks bytes of a file upload and reports them to the listener
+     */
+    private static class Progress {
+        private final UploadProgressListener listener;
+        private final long totalBytes;
+        private final long started = System.nanoTime();
+        private long storedBytes;
+        private long skippedBytes;
+        private long currentBytes;
+        private long reportedBytes;
+
+        private Progress(final UploadProgressListener listener, final long totalBytes) {
+            this.listener = listener;
+            this.totalBytes = totalBytes;
+        }
+
+        private InputStream track(final String path, final InputStream stream) {
+            currentBytes = 0;
+            reportedBytes = 0;
+            return new FilterInputStream(stream) {
+                @Override
+                public int read() throws IOException {
+                    final int read = super.read();
+                    if (read >= 0) {
+                        sent(path, 1);
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    final int read = super.read(b, off, len);
+                    if (read > 0) {
+                        sent(path, read);
+                    }
+                    return read;
+                }
+            };
+        }
+
+        private void sent(final String path, final int bytes) {
+            currentBytes += bytes;
+            if (currentBytes - reportedBytes >= PROGRESS_STEP) {
+                reportedBytes = currentBytes;
+                report(path);
+            }
+        }
+
+        private void finished(final String path) {
+            storedBytes += currentBytes;
+            currentBytes = 0;
+            report(path);
+        }
+
+        private void skipped(final String path, final long bytes) {
+            storedBytes += bytes;
+            skippedBytes += bytes;
+            report(path);
+        }
+
+        private void failed() {
+            currentBytes = 0;
+        }
+
+        private void report(final String path) {
+            if (listener != null) {
+                final long uploaded = storedBytes + currentBytes;
+                final double seconds = (System.nanoTime() - started) / 1e9;
+                listener.onProgress(path, uploaded, totalBytes,
+                        seconds > 0 ? (uploaded - skippedBytes) / seconds : 0);
+            }
         }
     }
 
@@ -138,7 +461,7 @@ public class DataStoreService {
         notEmpty(path, "path");
         final URI uri = getUri(path);
         try {
-            final ResponseEntity result = restTemplate.exchange(uri, HttpMethod.DELETE, org.springframework.http.HttpEntity.EMPTY, Void.class);
+            final ResponseEntity<Void> result = restTemplate.exchange(uri, HttpMethod.DELETE, org.springframework.http.HttpEntity.EMPTY, Void.class);
 
             // in case we get redirect (i.e. when we want to delete collection) we will follow redirect to the new location
             if (HttpStatus.MOVED_PERMANENTLY.equals(result.getStatusCode())) {
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.gdc;
+
+/**
+ * Receives progress of the file uploads, see {@link DataStoreService#uploadWithRetry(String, java.nio.file.Path, UploadProgressListener)}.
+ * Called by the uploading thread.
+ */
+public interface UploadProgressListener {
+
+    /**
+     * Reports progress of the upload, at least once per uploaded file.
+     *
+     * @param path           datastore path of the file being uploaded
+     * @param uploadedBytes  bytes of all files of the upload stored so far, including the files uploaded before
+     *                       restart; decreases when the file is retried
+     * @param totalBytes     size of all files of the upload
+     * @param bytesPerSecond average throughput since the upload started
+     */
+    void onProgress(String path, long uploadedBytes, long totalBytes, double bytesPerSecond);
+}
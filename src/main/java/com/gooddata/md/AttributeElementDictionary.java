@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Element titles and URIs of a single display form with constant time lookup in both directions.
+ * <p>
+ * The element URIs share the prefix of the display form elements resource (e.g.
+ * {@code /gdc/md/PROJECT_ID/obj/1333/elements?id=}) and differ in the numeric id only, so just the ids are stored
+ * as primitive ints. Each distinct title is stored once as UTF-8 bytes in a single buffer, the elements refer
+ * to it by index. All the storage is optionally allocated off-heap for attributes with millions of elements;
+ * it's filled element by element while the dictionary is built, so the elements don't need to be held on heap.
+ * Immutable, so it can be shared by concurrent readers.
+ *
+ * @see MetadataService#getAttributeElementDictionary(DisplayForm, boolean)
+ */
+public class AttributeElementDictionary {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Pattern ELEMENT_URI = Pattern.compile("(.*[?&]id=)(-?\\d+)");
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean offHeap;
+    private String prefix;
+    private int size;
+    private int titleCount;
+    /** element id by element index */
+    private IntBuffer ids;
+    /** title index by element index */
+    private IntBuffer elementTitles;
+    /** first element index by title index */
+    private IntBuffer titleElements;
+    /** start of the title bytes by title index, followed by the end of the last title */
+    private IntBuffer titleOffsets;
+    private ByteBuffer titles;
+    /** open addressing table of element indexes (shifted by one, zero marks an empty slot) by id */
+    private IntBuffer idTable;
+    /** open addressing table of title indexes (shifted by one, zero marks an empty slot) by title */
+    private IntBuffer titleTable;
+
+    /**
+     * Creates dictionary of the given elements.
+     *
+     * @param elements elements of single display form
+     * @param offHeap  whether to allocate the storage off-heap (in direct buffers)
+     * @throws IllegalArgumentException when the element URIs don't share the same prefix followed by numeric id
+     */
+    public AttributeElementDictionary(final Iterable<AttributeElement> elements, final boolean offHeap) {
+        notNull(elements, "elements");
+        this.offHeap = offHeap;
+        ids = allocateInts(INITIAL_CAPACITY);
+        elementTitles = allocateInts(INITIAL_CAPACITY);
+        titleElements = allocateInts(INITIAL_CAPACITY);
+        titleOffsets = allocateInts(INITIAL_CAPACITY + 1);
+        titles = allocateBytes(INITIAL_CAPACITY * 8);
+        idTable = allocateInts(INITIAL_CAPACITY * 2);
+        titleTable = allocateInts(INITIAL_CAPACITY * 2);
+        for (AttributeElement element : elements) {
+            add(element);
+        }
+    }
+
+    private void add(final AttributeElement element) {
+        final Matcher matcher = ELEMENT_URI.matcher(notNull(element.getUri(), "element uri"));
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Element URI " + element.getUri() + " doesn't end with numeric id");
+        }
+        if (prefix == null) {
+            prefix = matcher.group(1);
+        } else if (!prefix.equals(matcher.group(1))) {
+            throw new IllegalArgumentException("Element URI " + element.getUri() + " doesn't start with " + prefix);
+        }
+        final int id = Integer.parseInt(matcher.group(2));
+        final byte[] title = element.getTitle() == null ? new byte[0] : element.getTitle().getBytes(UTF_8);
+
+        int titleIndex = findTitle(title);
+        if (titleIndex < 0) {
+            titleIndex = addTitle(title);
+        }
+        if (size == ids.capacity()) {
+            ids = grow(ids, size * 2);
+            elementTitles = grow(elementTitles, size * 2);
+        }
+        ids.put(size, id);
+        elementTitles.put(size, titleIndex);
+        if ((size + 1) * 2 > idTable.capacity()) {
+            idTable = allocateInts(idTable.capacity() * 2);
+            for (int i = 0; i < size; i++) {
+                insert(idTable, mix(ids.get(i)), i);
+            }
+        }
+        insert(idTable, mix(id), size);
+        size++;
+    }
+
+    private int addTitle(final byte[] title) {
+        final int index = titleCount;
+        if (index == titleElements.capacity()) {
+            titleElements = grow(titleElements, index * 2);
+            titleOffsets = grow(titleOffsets, index * 2 + 1);
+        }
+        final int start = titleOffsets.get(index);
+        if (start + title.length > titles.capacity()) {
+            titles = grow(titles, Math.max(titles.capacity() * 2, start + title.length));
+        }
+        for (int i = 0; i < title.length; i++) {
+            titles.put(start + i, title[i]);
+        }
+        titleOffsets.put(index + 1, start + title.length);
+        titleElements.put(index, size);
+        titleCount++;
+        if (titleCount * 2 > titleTable.capacity()) {
+            titleTable = allocateInts(titleTable.capacity() * 2);
+            for (int i = 0; i < titleCount - 1; i++) {
+                insert(titleTable, mix(hashTitle(i)), i);
+            }
+        }
+        insert(titleTable, mix(Arrays.hashCode(title)), index);
+        return index;
+    }
+
+    private IntBuffer allocateInts(final int length) {
+        return offHeap ? ByteBuffer.allocateDirect(length * 4).asIntBuffer() : IntBuffer.allocate(length);
+    }
+
+    private ByteBuffer allocateBytes(final int length) {
+        return offHeap ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+    }
+
+    private IntBuffer grow(final IntBuffer buffer, final int capacity) {
+        final IntBuffer grown = allocateInts(capacity);
+        final IntBuffer source = buffer.duplicate();
+        source.clear();
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+
+    private ByteBuffer grow(final ByteBuffer buffer, final int capacity) {
+        final ByteBuffer grown = allocateBytes(capacity);
+        final ByteBuffer source = buffer.duplicate();
+        source.clear();
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+
+    /**
+     * @return number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of distinct titles stored
+     */
+    int getTitleCount() {
+        return titleCount;
+    }
+
+    /**
+     * @return true when the storage is allocated off-heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Returns URI of the element of the given title. When more elements share the title, the first one is returned.
+     *
+     * @param title element title
+     * @return element URI or null when there is no such element
+     */
+    public String getUri(final String title) {
+        notNull(title, "title");
+        final int index = findTitle(title.getBytes(UTF_8));
+        return index < 0 ? null : prefix + ids.get(titleElements.get(index));
+    }
+
+    /**
+     * Returns title of the element of the given URI.
+     *
+     * @param uri element URI
+     * @return element title or null when there is no such element
+     */
+    public String getTitle(final String uri) {
+        notNull(uri, "uri");
+        if (prefix == null || !uri.startsWith(prefix)) {
+            return null;
+        }
+        final int id;
+        try {
+            id = Integer.parseInt(uri.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        final int mask = idTable.capacity() - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = idTable.get(slot);
+            if (entry == 0) {
+                return null;
+            }
+            if (ids.get(entry - 1) == id) {
+                return getTitle(elementTitles.get(entry - 1));
+            }
+        }
+    }
+
+    private int findTitle(final byte[] bytes) {
+        final int mask = titleTable.capacity() - 1;
+        for (int slot = mix(Arrays.hashCode(bytes)) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = titleTable.get(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (titleEquals(entry - 1, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private String getTitle(final int index) {
+        final int start = titleOffsets.get(index);
+        final byte[] bytes = new byte[titleOffsets.get(index + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = titles.get(start + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    private boolean titleEquals(final int index, final byte[] bytes) {
+        final int start = titleOffsets.get(index);
+        if (titleOffsets.get(index + 1) - start != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (titles.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link Arrays#hashCode(byte[])} of the stored title bytes.
+     */
+    private int hashTitle(final int index) {
+        int hash = 1;
+        for (int i = titleOffsets.get(index); i < titleOffsets.get(index + 1); i++) {
+            hash = 31 * hash + titles.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Stores the index (shifted by one, zero marks an empty slot) to the first free slot.
+     * First inserted index wins the lookup when more indexes share the key.
+     */
+    private static void insert(final IntBuffer table, final int hash, final int index) {
+        final int mask = table.capacity() - 1;
+        int slot = hash & mask;
+        while (table.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.put(slot, index + 1);
+    }
+
+    private static int mix(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
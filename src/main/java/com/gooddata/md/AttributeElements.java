@@ -30,16 +30,29 @@ class AttributeElements {
 
     private final List<AttributeElement> elements;
 
+    private final ElementsMeta meta;
+
+    AttributeElements(List<AttributeElement> elements) {
+        this(elements, null);
+    }
+
     @JsonCreator
-    AttributeElements(@JsonProperty("elements") List<AttributeElement> elements) {
+    AttributeElements(@JsonProperty("elements") List<AttributeElement> elements,
+                      @JsonProperty("elementsMeta") ElementsMeta meta) {
         notNull(elements, "elements");
         this.elements = elements;
+        this.meta = meta;
     }
 
     public List<AttributeElement> getElements() {
         return elements;
     }
 
+    @JsonProperty("elementsMeta")
+    ElementsMeta getMeta() {
+        return meta;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -57,4 +70,35 @@ class AttributeElements {
     public int hashCode() {
         return elements != null ? elements.hashCode() : 0;
     }
+
+    /**
+     * Paging information of the elements response
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class ElementsMeta {
+
+        private final Integer offset;
+        private final Integer records;
+
+        @JsonCreator
+        ElementsMeta(@JsonProperty("offset") Integer offset, @JsonProperty("records") Integer records) {
+            this.offset = offset;
+            this.records = records;
+        }
+
+        /**
+         * @return position of the first returned element
+         */
+        public Integer getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return total number of the elements matching the filter
+         */
+        public Integer getRecords() {
+            return records;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import java.util.Collection;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Request of the bulk objects resource to get several metadata objects at once. Serialization only.
+ */
+@JsonTypeInfo(include = JsonTypeInfo.As.WRAPPER_OBJECT, use = JsonTypeInfo.Id.NAME)
+@JsonTypeName("get")
+class BulkGet {
+
+    public static final String URI = "/gdc/md/{projectId}/objects/get";
+
+    private final Collection<String> items;
+
+    BulkGet(final Collection<String> items) {
+        this.items = notNull(items, "items");
+    }
+
+    @JsonProperty("items")
+    public Collection<String> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metadata objects returned by the bulk objects resource, the objects of various types are kept as JSON trees
+ * to be bound to the requested type. Deserialization only.
+ */
+@JsonTypeInfo(include = JsonTypeInfo.As.WRAPPER_OBJECT, use = JsonTypeInfo.Id.NAME)
+@JsonTypeName("objects")
+@JsonIgnoreProperties(ignoreUnknown = true)
+class BulkObjects {
+
+    private final List<JsonNode> items;
+
+    @JsonCreator
+    BulkObjects(@JsonProperty("items") final List<JsonNode> items) {
+        this.items = items == null ? Collections.<JsonNode>emptyList() : items;
+    }
+
+    List<JsonNode> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.gooddata.util.Validate.noNullElements;
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Dependencies among the metadata objects of a project, as crawled by
+ * {@link MetadataService#getDependencyGraph(com.gooddata.project.Project, Collection)}.
+ * Objects are identified by their URIs, the edges are kept as adjacency sets of compact node numbers.
+ * Not modified once returned, so it can be shared by concurrent readers.
+ */
+public class DependencyGraph {
+
+    private final Map<String, Integer> nodes = new HashMap<>();
+    private final List<String> uris = new ArrayList<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<BitSet> usedBy = new ArrayList<>();
+    private final List<BitSet> using = new ArrayList<>();
+
+    DependencyGraph() {
+    }
+
+    /**
+     * Adds the object to the graph unless it's there already.
+     *
+     * @param uri   URI of the object
+     * @param entry entry of the object, may be null
+     * @return number of the node
+     */
+    int addNode(final String uri, final Entry entry) {
+        Integer node = nodes.get(uri);
+        if (node == null) {
+            node = uris.size();
+            nodes.put(uri, node);
+            uris.add(uri);
+            entries.add(entry);
+            usedBy.add(new BitSet());
+            using.add(new BitSet());
+        } else if (entry != null && entries.get(node) == null) {
+            entries.set(node, entry);
+        }
+        return node;
+    }
+
+    /**
+     * Records that the object of the first node is used by the object of the second one.
+     *
+     * @param used node of the used object
+     * @param user node of the using object
+     */
+    void addUsage(final int used, final int user) {
+        usedBy.get(used).set(user);
+        using.get(user).set(used);
+    }
+
+    /**
+     * @return number of objects in the graph
+     */
+    public int size() {
+        return uris.size();
+    }
+
+    /**
+     * @return URIs of all objects in the graph, in the order they were discovered
+     */
+    public List<String> getUris() {
+        return Collections.unmodifiableList(uris);
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return true when the object is in the graph
+     */
+    public boolean contains(final String uri) {
+        return nodes.containsKey(uri);
+    }
+
+    /**
+     * Returns the entry of the object as returned by the server when it was discovered as a using object.
+     *
+     * @param uri URI of the object
+     * @return entry of the object or null when the object was only a starting point of the crawl
+     */
+    public Entry getEntry(final String uri) {
+        return entries.get(getNode(uri));
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return URIs of the objects directly using the given object
+     */
+    public Set<String> getUsedBy(final String uri) {
+        return toUris(usedBy.get(getNode(uri)));
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return URIs of the objects directly used by the given object
+     */
+    public Set<String> getUsing(final String uri) {
+        return toUris(using.get(getNode(uri)));
+    }
+
+    /**
+     * Returns all objects impacted by change of the given objects, i.e. the objects using them directly or transitively.
+     *
+     * @param uris URIs of the changed objects
+     * @return URIs of the impacted objects, without the given ones unless they depend on each other
+     */
+    public Set<String> getImpact(final String... uris) {
+        return closure(usedBy, uris);
+    }
+
+    /**
+     * Returns all objects the given objects depend on, i.e. the objects used by them directly or transitively.
+     *
+     * @param uris URIs of the objects
+     * @return URIs of the dependencies, without the given ones unless they depend on each other
+     */
+    public Set<String> getDependencies(final String... uris) {
+        return closure(using, uris);
+    }
+
+    private Set<String> closure(final List<BitSet> adjacency, final String... uris) {
+        noNullElements(uris, "uris");
+        final BitSet reached = new BitSet();
+        final BitSet frontier = new BitSet();
+        for (String uri : uris) {
+            frontier.or(adjacency.get(getNode(uri)));
+        }
+        while (!frontier.isEmpty()) {
+            final int node = frontier.nextSetBit(0);
+            frontier.clear(node);
+            if (!reached.get(node)) {
+                reached.set(node);
+                frontier.or(adjacency.get(node));
+                frontier.andNot(reached);
+            }
+        }
+        return toUris(reached);
+    }
+
+    private int getNode(final String uri) {
+        notNull(uri, "uri");
+        final Integer node = nodes.get(uri);
+        isTrue(node != null, "Object " + uri + " is not in the graph");
+        return node;
+    }
+
+    private Set<String> toUris(final BitSet set) {
+        final Set<String> result = new LinkedHashSet<>();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            result.add(uris.get(i));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
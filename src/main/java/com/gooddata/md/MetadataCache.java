@@ -0,0 +1,490 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Size bounded cache of metadata objects keyed by URI, used by {@link MetadataService#getObjByUri(String, Class)}.
+ * The least recently used objects are evicted when the cache is full, the objects older than the time to live
+ * are loaded again. Cache of zero size is disabled.
+ * <p>
+ * The indexed query results used by {@link MetadataService#find(Project, Class, Restriction...)} are kept
+ * for the same time to live, up to the maximal size, a change of any object of the project drops them. So are the URIs of the identifiers
+ * resolved by {@link MetadataService#identifiersToUris(Project, java.util.Collection)} or known from the cached
+ * objects, up to the maximal size. The element dictionaries of
+ * {@link MetadataService#getAttributeElementDictionary(DisplayForm, boolean)} are kept the same way, keyed by
+ * the display form URI.
+ * <p>
+ * The cache keeps its own instances of the objects, {@link MetadataService} stores and returns copies of them,
+ * so the objects obtained from the service can be modified freely. Objects updated or removed
+ * by {@link MetadataService} are invalidated, use {@link #flush(Project)} when the project metadata are changed
+ * by other means (e.g. model update or ETL).
+ * <p>
+ * The cache is thread safe.
+ */
+public class MetadataCache {
+
+    private static final Pattern PROJECT_PATTERN = Pattern.compile("/gdc/md/([^/]+)/");
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Cached<Obj>> objs;
+    private final Map<String, Cached<QueryIndex>> queries;
+    /** incremented whenever query results are dropped, so the results loaded before aren't stored after that */
+    private long queryGeneration;
+    private final Map<String, Cached<String>> identifierUris;
+    private final Map<String, String> uriIdentifiers = new HashMap<>();
+    private final Map<String, Cached<AttributeElementDictionary>> dictionaries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates cache of the given size and time to live.
+     *
+     * @param maxSize maximal number of cached objects, 0 to disable the cache
+     * @param ttl     time to live of the cached objects
+     * @param unit    unit of the time to live
+     */
+    public MetadataCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        isTrue(maxSize >= 0, "maxSize must be not negative");
+        isTrue(ttl > 0, "ttl must be greater than zero");
+        notNull(unit, "unit");
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.objs = new LinkedHashMap<String, Cached<Obj>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Cached<Obj>> eldest) {
+                if (size() > MetadataCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.identifierUris = new LinkedHashMap<String, Cached<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Cached<String>> eldest) {
+                if (size() > MetadataCache.this.maxSize) {
+                    uriIdentifiers.remove(eldest.getValue().value);
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.queries = new LinkedHashMap<String, Cached<QueryIndex>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Cached<QueryIndex>> eldest) {
+                return size() > MetadataCache.this.maxSize;
+            }
+        };
+        this.dictionaries = new LinkedHashMap<String, Cached<AttributeElementDictionary>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Cached<AttributeElementDictionary>> eldest) {
+                return size() > MetadataCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Creates disabled cache.
+     *
+     * @return cache which never stores any object
+     */
+    static MetadataCache disabled() {
+        return new MetadataCache(0, 1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true if the cache stores the objects
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the cached object of the given URI and type.
+     *
+     * @param uri URI of the object
+     * @param cls expected type of the object
+     * @param <T> type of the object
+     * @return the object or null when it's not cached, expired or of other type
+     */
+    <T extends Obj> T get(final String uri, final Class<T> cls) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final Cached<Obj> cached;
+        synchronized (objs) {
+            cached = objs.get(uri);
+            if (cached != null && cached.isExpired()) {
+                objs.remove(uri);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        if (cached == null || !cls.isInstance(cached.value)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cls.cast(cached.value);
+    }
+
+    /**
+     * Stores the object of the given URI.
+     *
+     * @param uri URI of the object
+     * @param obj the object
+     */
+    void put(final String uri, final Obj obj) {
+        if (isEnabled()) {
+            synchronized (objs) {
+                objs.put(uri, new Cached<>(obj, System.nanoTime() + ttlNanos));
+            }
+            final Matcher matcher = PROJECT_PATTERN.matcher(uri);
+            if (obj instanceof AbstractObj && ((AbstractObj) obj).getIdentifier() != null && matcher.find()) {
+                putUri(matcher.group(1), ((AbstractObj) obj).getIdentifier(), uri);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached URI of the given identifier.
+     *
+     * @param projectId  project id
+     * @param identifier identifier of the object
+     * @return URI of the object or null when it's not cached or expired
+     */
+    String getUri(final String projectId, final String identifier) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final String key = projectId + '/' + identifier;
+        synchronized (identifierUris) {
+            final Cached<String> cached = identifierUris.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.isExpired()) {
+                identifierUris.remove(key);
+                if (key.equals(uriIdentifiers.get(cached.value))) {
+                    uriIdentifiers.remove(cached.value);
+                }
+                return null;
+            }
+            return cached.value;
+        }
+    }
+
+    /**
+     * Stores URI of the given identifier.
+     *
+     * @param projectId  project id
+     * @param identifier identifier of the object
+     * @param uri        URI of the object
+     */
+    void putUri(final String projectId, final String identifier, final String uri) {
+        if (isEnabled()) {
+            final String key = projectId + '/' + identifier;
+            synchronized (identifierUris) {
+                final String previousKey = uriIdentifiers.put(uri, key);
+                if (previousKey != null && !previousKey.equals(key)) {
+                    identifierUris.remove(previousKey);
+                }
+                identifierUris.put(key, new Cached<>(uri, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * Returns the cached query result of the given project and type.
+     *
+     * @param projectId project id
+     * @param type      queried type
+     * @return the query result or null when it's not cached or expired
+     */
+    QueryIndex getQuery(final String projectId, final String type) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final String key = projectId + '/' + type;
+        synchronized (queries) {
+            final Cached<QueryIndex> cached = queries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.isExpired()) {
+                queries.remove(key);
+                return null;
+            }
+            return cached.value;
+        }
+    }
+
+    /**
+     * Returns the generation of the query results to pass to {@link #putQuery(String, String, QueryIndex, long)},
+     * get it before the query is sent.
+     *
+     * @return current generation
+     */
+    long getQueryGeneration() {
+        synchronized (queries) {
+            return queryGeneration;
+        }
+    }
+
+    /**
+     * Stores the query result of the given project and type, unless query results were dropped since the given
+     * generation (the result can be stale then).
+     *
+     * @param projectId  project id
+     * @param type       queried type
+     * @param query      the query result
+     * @param generation generation obtained by {@link #getQueryGeneration()} before the query was sent
+     */
+    void putQuery(final String projectId, final String type, final QueryIndex query, final long generation) {
+        if (isEnabled()) {
+            synchronized (queries) {
+                if (generation == queryGeneration) {
+                    queries.put(projectId + '/' + type, new Cached<>(query, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached element dictionary of the given display form.
+     *
+     * @param displayFormUri URI of the display form
+     * @return the dictionary or null when it's not cached or expired
+     */
+    AttributeElementDictionary getDictionary(final String displayFormUri) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (dictionaries) {
+            final Cached<AttributeElementDictionary> cached = dictionaries.get(displayFormUri);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.isExpired()) {
+                dictionaries.remove(displayFormUri);
+                return null;
+            }
+            return cached.value;
+        }
+    }
+
+    /**
+     * Stores the element dictionary of the given display form.
+     *
+     * @param displayFormUri URI of the display form
+     * @param dictionary     the dictionary
+     */
+    void putDictionary(final String displayFormUri, final AttributeElementDictionary dictionary) {
+        if (isEnabled()) {
+            synchronized (dictionaries) {
+                dictionaries.put(displayFormUri, new Cached<>(dictionary, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * Removes the object of the given URI, its identifier, its element dictionary and the query results of its project
+     * from the cache.
+     *
+     * @param uri URI of the object
+     */
+    public void invalidate(final String uri) {
+        notNull(uri, "uri");
+        synchronized (objs) {
+            objs.remove(uri);
+        }
+        synchronized (identifierUris) {
+            final String key = uriIdentifiers.remove(uri);
+            if (key != null) {
+                identifierUris.remove(key);
+            }
+        }
+        synchronized (dictionaries) {
+            dictionaries.remove(uri);
+        }
+        final Matcher matcher = PROJECT_PATTERN.matcher(uri);
+        if (matcher.find()) {
+            removeQueries(matcher.group(1));
+        }
+    }
+
+    private void removeQueries(final String projectId) {
+        synchronized (queries) {
+            queryGeneration++;
+            for (Iterator<String> keys = queries.keySet().iterator(); keys.hasNext(); ) {
+                if (keys.next().startsWith(projectId + '/')) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all objects, query results, identifiers and element dictionaries of the given project from the cache.
+     *
+     * @param project project of the objects
+     */
+    public void flush(final Project project) {
+        notNull(project, "project");
+        final String projectUri = "/gdc/md/" + notNull(project.getId(), "project.id") + "/";
+        synchronized (objs) {
+            for (Iterator<String> uris = objs.keySet().iterator(); uris.hasNext(); ) {
+                if (uris.next().contains(projectUri)) {
+                    uris.remove();
+                }
+            }
+        }
+        synchronized (dictionaries) {
+            for (Iterator<String> uris = dictionaries.keySet().iterator(); uris.hasNext(); ) {
+                if (uris.next().contains(projectUri)) {
+                    uris.remove();
+                }
+            }
+        }
+        removeQueries(project.getId());
+        synchronized (identifierUris) {
+            for (Iterator<String> keys = identifierUris.keySet().iterator(); keys.hasNext(); ) {
+                if (keys.next().startsWith(project.getId() + '/')) {
+                    keys.remove();
+                }
+            }
+            for (Iterator<String> keys = uriIdentifiers.values().iterator(); keys.hasNext(); ) {
+                if (keys.next().startsWith(project.getId() + '/')) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all objects, query results, identifiers and element dictionaries from the cache.
+     */
+    public void flush() {
+        synchronized (objs) {
+            objs.clear();
+        }
+        synchronized (queries) {
+            queryGeneration++;
+            queries.clear();
+        }
+        synchronized (identifierUris) {
+            identifierUris.clear();
+            uriIdentifiers.clear();
+        }
+        synchronized (dictionaries) {
+            dictionaries.clear();
+        }
+    }
+
+    /**
+     * @return snapshot of the cache statistics
+     */
+    public Stats getStats() {
+        final int size;
+        synchronized (objs) {
+            size = objs.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), size);
+    }
+
+    private static class Cached<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Cached(final V value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Statistics of the cache usage.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+
+        Stats(final long hits, final long misses, final long evictions, final int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        /**
+         * @return number of objects served from the cache
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return number of objects loaded from the API
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return number of objects removed because the cache was full or they expired
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return number of currently cached objects
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return ratio of the hits to all requests, 0 when there was no request
+         */
+        public double getHitRatio() {
+            final long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", size=" + size +
+                    '}';
+        }
+    }
+}
@@ -3,9 +3,18 @@
  */
 package com.gooddata.md;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.gooddata.AbstractService;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
+import com.gooddata.ItemCallback;
+import com.gooddata.PollScheduler;
+import com.gooddata.collections.Page;
+import com.gooddata.collections.PageLoader;
+import com.gooddata.collections.PageRequest;
+import com.gooddata.collections.PageableIterable;
+import com.gooddata.collections.PageableList;
+import com.gooddata.collections.Paging;
 import com.gooddata.gdc.UriResponse;
 import com.gooddata.md.report.ReportDefinition;
 import com.gooddata.project.Project;
@@ -13,25 +22,114 @@ import org.springframework.http.HttpStatus;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.gooddata.util.Validate.noNullElements;
 import static com.gooddata.util.Validate.notNull;
 import static java.util.Arrays.asList;
+import static org.springframework.util.Assert.isTrue;
 
 /**
  * Query, create and update project metadata - attributes, facts, metrics, reports,...
  */
 public class MetadataService extends AbstractService {
 
+    /**
+     * Maximal number of objects requested by single request of {@link #getObjsByUris(Collection, Class)}
+     */
+    public static final int BULK_GET_BATCH_SIZE = 50;
+
+    /**
+     * Maximal number of concurrent requests of {@link #getObjsByUris(Collection, Class)} when the objects
+     * are requested one by one
+     */
+    public static final int PARALLEL_GET_LIMIT = 8;
+
+    /**
+     * Maximal number of concurrent requests of {@link #createObjs(Project, ObjBatch)}
+     */
+    public static final int PARALLEL_CREATE_LIMIT = 8;
+
+    /**
+     * Maximal number of identifiers resolved by single request of {@link #identifiersToUris(Project, Collection)}
+     */
+    public static final int IDENTIFIERS_CHUNK_SIZE = 500;
+
+    /**
+     * Maximal number of objects requested by single request of {@link #getDependencyGraph(Project, Collection)}
+     */
+    public static final int USEDBY_BATCH_SIZE = 100;
+
+    /**
+     * Default number of attribute elements requested by single request of
+     * {@link #listAllAttributeElements(DisplayForm)}
+     */
+    public static final int ATTRIBUTE_ELEMENTS_PAGE_SIZE = 1000;
+
+    private static final Pattern OBJ_URI_PATTERN = Pattern.compile("/gdc/md/([^/]+)/obj/[^/]+");
+
+    private final MetadataCache cache;
+
     public MetadataService(RestTemplate restTemplate) {
+        this(restTemplate, MetadataCache.disabled());
+    }
+
+    /**
+     * Constructs service caching the metadata objects got by URI.
+     *
+     * @param restTemplate RESTful HTTP Spring template
+     * @param cache        cache of the metadata objects
+     */
+    public MetadataService(RestTemplate restTemplate, MetadataCache cache) {
         super(restTemplate);
+        this.cache = notNull(cache, "cache");
+    }
+
+    /**
+     * Constructs service caching the metadata objects got by URI, running the concurrent requests
+     * (e.g. of {@link #getObjsByUris(Collection, Class)} or {@link #createObjs(Project, ObjBatch)}) by the executor
+     * of the given scheduler.
+     *
+     * @param restTemplate  RESTful HTTP Spring template
+     * @param cache         cache of the metadata objects
+     * @param pollScheduler scheduler driving asynchronous polling and requests
+     */
+    public MetadataService(RestTemplate restTemplate, MetadataCache cache, PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+        this.cache = notNull(cache, "cache");
+    }
+
+    /**
+     * Returns cache of the metadata objects got by URI, it's disabled unless configured by
+     * {@link com.gooddata.GoodDataSettings#setMetadataCacheSize(int)}.
+     *
+     * @return the cache
+     */
+    public MetadataCache getCache() {
+        return cache;
     }
 
     /**
@@ -49,6 +147,20 @@ public class MetadataService extends AbstractService {
      */
     @SuppressWarnings("unchecked")
     public <T extends Obj> T createObj(Project project, T obj) {
+        return getObjByUri(createObjWithoutFetch(project, obj), (Class<T>) obj.getClass());
+    }
+
+    /**
+     * Create metadata object in given project without getting the created object back, which saves a request
+     * per object when creating many of them. The objects can be verified later by
+     * {@link #getObjsByUris(Collection, Class)}.
+     *
+     * @param project project
+     * @param obj     metadata object to be created
+     * @return URI of the new metadata object
+     * @throws com.gooddata.md.ObjCreateException if creation failed
+     */
+    public String createObjWithoutFetch(Project project, Obj obj) {
         notNull(project, "project");
         notNull(obj, "obj");
 
@@ -62,11 +174,71 @@ public class MetadataService extends AbstractService {
         if (response == null) {
             throw new ObjCreateException("empty response from API call", obj);
         }
-        return getObjByUri(response.getUri(), (Class<T>) obj.getClass());
+        cache.invalidate(response.getUri());
+        return response.getUri();
+    }
+
+
+    /**
+     * Create metadata objects of the batch in given project. The objects are created in the order of their
+     * dependencies, objects whose dependencies are created are created concurrently by up to
+     * {@value #PARALLEL_CREATE_LIMIT} requests. The created objects aren't fetched back,
+     * see {@link #createObjWithoutFetch(Project, Obj)}.
+     * <p>
+     * Failure of an object doesn't abort the batch, the objects depending on it are skipped and reported as failed.
+     *
+     * @param project project
+     * @param batch   objects to be created
+     * @return URIs of the created objects and failures of the others
+     * @throws IllegalArgumentException when a dependency isn't in the batch or dependencies are cyclic
+     */
+    public ObjBatchResult createObjs(final Project project, final ObjBatch batch) {
+        notNull(project, "project");
+        notNull(batch, "batch");
+
+        final Map<String, String> uris = new ConcurrentHashMap<>();
+        final Map<String, GoodDataException> failures = new ConcurrentHashMap<>();
+        for (List<String> level : batch.getLevels()) {
+            final List<Runnable> tasks = new ArrayList<>(level.size());
+            for (final String key : level) {
+                final String failed = findFailed(batch.getDependencies(key), failures);
+                if (failed != null) {
+                    failures.put(key, new GoodDataException("Dependency " + failed + " of " + key + " not created"));
+                    continue;
+                }
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final Obj obj = batch.getFactory(key).create(Collections.unmodifiableMap(uris));
+                            uris.put(key, createObjWithoutFetch(project, obj));
+                        } catch (GoodDataException e) {
+                            failures.put(key, e);
+                        } catch (RuntimeException e) {
+                            failures.put(key, new GoodDataException("Unable to create " + key, e));
+                        }
+                    }
+                });
+            }
+            runInParallel(tasks, PARALLEL_CREATE_LIMIT);
+        }
+        return new ObjBatchResult(uris, failures);
+    }
+
+    private static String findFailed(final Collection<String> keys, final Map<String, GoodDataException> failures) {
+        for (String key : keys) {
+            if (failures.containsKey(key)) {
+                return key;
+            }
+        }
+        return null;
     }
 
     /**
-     * Get metadata object by URI (format is <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>)
+     * Get metadata object by URI (format is <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>).
+     * The object is served from the {@link #getCache() cache} when enabled. Each call returns a new copy
+     * of the object, so it can be modified (e.g. before {@link #updateObj(Updatable)}) without affecting
+     * the cache or other callers.
      *
      * @param uri URI in format <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>
      * @param cls class of the resulting object
@@ -79,10 +251,17 @@ public class MetadataService extends AbstractService {
     public <T extends Obj> T getObjByUri(String uri, Class<T> cls) {
         notNull(uri, "uri");
         notNull(cls, "cls");
+        final T cached = cache.get(uri, cls);
+        if (cached != null) {
+            return copy(cached);
+        }
         try {
             final T result = restTemplate.getForObject(uri, cls);
 
             if (result != null) {
+                if (cache.isEnabled()) {
+                    cache.put(uri, copy(result));
+                }
                 return result;
             } else {
                 throw new GoodDataException("empty response from API call");
@@ -98,6 +277,204 @@ public class MetadataService extends AbstractService {
         }
     }
 
+    /**
+     * Copies the object through its JSON representation, so the cached instances are never shared with callers
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Obj> T copy(final T obj) {
+        try {
+            return (T) mapper.treeToValue(mapper.valueToTree(obj), obj.getClass());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new GoodDataException("Unable to copy " + obj.getClass().getSimpleName() + " " + obj.getUri(), e);
+        }
+    }
+
+
+    /**
+     * Get metadata objects by URIs. The objects of each project are requested by the bulk objects resource
+     * in batches of {@value #BULK_GET_BATCH_SIZE}; when the resource isn't available, or for URIs not in the
+     * <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code> format, the objects are requested one by one by up to
+     * {@value #PARALLEL_GET_LIMIT} concurrent requests. Objects in the {@link #getCache() cache} aren't requested.
+     * <p>
+     * Objects which can't be loaded don't fail the whole call, their failures are reported by the result.
+     *
+     * @param uris URIs of the objects
+     * @param cls  class of the resulting objects
+     * @param <T>  type of the objects to be returned
+     * @return the loaded objects and failures, in the order of the given URIs
+     */
+    public <T extends Obj> ObjsResult<T> getObjsByUris(Collection<String> uris, Class<T> cls) {
+        noNullElements(uris, "uris");
+        notNull(cls, "cls");
+
+        final Map<String, T> objs = new ConcurrentHashMap<>();
+        final Map<String, GoodDataException> failures = new ConcurrentHashMap<>();
+        final Map<String, List<String>> projectUris = new LinkedHashMap<>();
+        final List<String> singleUris = new ArrayList<>();
+        for (String uri : new LinkedHashSet<>(uris)) {
+            final T cached = cache.get(uri, cls);
+            if (cached != null) {
+                objs.put(uri, copy(cached));
+                continue;
+            }
+            final Matcher matcher = OBJ_URI_PATTERN.matcher(uri);
+            if (matcher.matches()) {
+                List<String> batch = projectUris.get(matcher.group(1));
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                    projectUris.put(matcher.group(1), batch);
+                }
+                batch.add(uri);
+            } else {
+                singleUris.add(uri);
+            }
+        }
+
+        boolean bulkAvailable = true;
+        for (Map.Entry<String, List<String>> project : projectUris.entrySet()) {
+            final List<String> projectBatch = project.getValue();
+            for (int from = 0; from < projectBatch.size(); from += BULK_GET_BATCH_SIZE) {
+                final List<String> batch =
+                        projectBatch.subList(from, Math.min(from + BULK_GET_BATCH_SIZE, projectBatch.size()));
+                if (bulkAvailable) {
+                    bulkAvailable = getObjsInBulk(project.getKey(), batch, cls, objs, failures);
+                }
+                if (!bulkAvailable) {
+                    singleUris.addAll(batch);
+                }
+            }
+        }
+        getObjsInParallel(singleUris, cls, objs, failures);
+
+        return new ObjsResult<>(uris, objs, failures);
+    }
+
+    /**
+     * @return false when the bulk objects resource isn't available
+     */
+    private <T extends Obj> boolean getObjsInBulk(final String projectId, final List<String> uris, final Class<T> cls,
+                                                  final Map<String, T> objs,
+                                                  final Map<String, GoodDataException> failures) {
+        final BulkObjects response;
+        try {
+            response = restTemplate.postForObject(BulkGet.URI, new BulkGet(uris), BulkObjects.class, projectId);
+        } catch (GoodDataRestException e) {
+            if (HttpStatus.NOT_FOUND.value() == e.getStatusCode()
+                    || HttpStatus.METHOD_NOT_ALLOWED.value() == e.getStatusCode()) {
+                return false;
+            }
+            addFailures(uris, new GoodDataException("Unable to get objects", e), failures);
+            return true;
+        } catch (RestClientException e) {
+            addFailures(uris, new GoodDataException("Unable to get objects", e), failures);
+            return true;
+        }
+        if (response == null) {
+            addFailures(uris, new GoodDataException("empty response from API call"), failures);
+            return true;
+        }
+
+        for (JsonNode item : response.getItems()) {
+            try {
+                final T obj = mapper.treeToValue(item, cls);
+                if (obj.getUri() != null && uris.contains(obj.getUri())) {
+                    objs.put(obj.getUri(), obj);
+                    if (cache.isEnabled()) {
+                        cache.put(obj.getUri(), copy(obj));
+                    }
+                }
+            } catch (IOException e) {
+                final String uri = item.isObject() && item.size() == 1
+                        ? item.elements().next().path("meta").path("uri").asText() : null;
+                if (uri != null && uris.contains(uri)) {
+                    failures.put(uri, new GoodDataException("Unable to read " + cls.getSimpleName().toLowerCase()
+                            + " " + uri, e));
+                }
+            }
+        }
+        for (String uri : uris) {
+            if (!objs.containsKey(uri) && !failures.containsKey(uri)) {
+                failures.put(uri, new ObjNotFoundException(uri, cls, null));
+            }
+        }
+        return true;
+    }
+
+    private <T extends Obj> void getObjsInParallel(final List<String> uris, final Class<T> cls,
+                                                   final Map<String, T> objs,
+                                                   final Map<String, GoodDataException> failures) {
+        final List<Runnable> tasks = new ArrayList<>(uris.size());
+        for (final String uri : uris) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        objs.put(uri, getObjByUri(uri, cls));
+                    } catch (GoodDataException e) {
+                        failures.put(uri, e);
+                    }
+                }
+            });
+        }
+        runInParallel(tasks, PARALLEL_GET_LIMIT);
+    }
+
+    /**
+     * Runs the tasks on the async executor with at most the given number of them running there at once
+     * and waits for all of them. The calling thread is one of the workers: it runs the tasks over the limit
+     * and the tasks not started by the executor yet, so it never waits for a task queued behind it,
+     * even when called from a thread of the executor.
+     */
+    private void runInParallel(final List<Runnable> tasks, final int limit) {
+        final Semaphore permits = new Semaphore(limit);
+        final List<FutureTask<Void>> futures = new ArrayList<>(tasks.size());
+        for (final Runnable runnable : tasks) {
+            if (!permits.tryAcquire()) {
+                final FutureTask<Void> future = new FutureTask<>(runnable, null);
+                futures.add(future);
+                future.run();
+                continue;
+            }
+            final FutureTask<Void> future = new FutureTask<>(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runnable.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            }, null);
+            futures.add(future);
+            try {
+                getAsyncExecutor().execute(future);
+            } catch (RejectedExecutionException e) {
+                future.run();
+            }
+        }
+        // future already started or done is not run again
+        for (FutureTask<Void> future : futures) {
+            future.run();
+        }
+        try {
+            for (FutureTask<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoodDataException("interrupted", e);
+        } catch (ExecutionException e) {
+            throw new GoodDataException("Unable to process objects", e.getCause());
+        }
+    }
+
+    private static void addFailures(final Collection<String> uris, final GoodDataException failure,
+                                    final Map<String, GoodDataException> failures) {
+        for (String uri : uris) {
+            failures.put(uri, failure);
+        }
+    }
+
     /**
      * Update given metadata object.
      *
@@ -108,12 +485,29 @@ public class MetadataService extends AbstractService {
      */
     @SuppressWarnings("unchecked")
     public <T extends Updatable> T updateObj(T obj) {
+        updateObjWithoutFetch(obj);
+        try {
+            return getObjByUri(obj.getUri(), (Class<T>) obj.getClass());
+        } catch (GoodDataException | RestClientException e) {
+            throw new ObjUpdateException(obj, e);
+        }
+    }
+
+    /**
+     * Update given metadata object without getting the updated object back, which saves a request per object
+     * when updating many of them. The objects can be verified later by {@link #getObjsByUris(Collection, Class)}.
+     *
+     * @param obj object to update
+     * @throws com.gooddata.md.ObjUpdateException in case of error
+     */
+    public void updateObjWithoutFetch(Updatable obj) {
         notNull(obj, "obj");
         try {
             restTemplate.put(obj.getUri(), obj);
-            return getObjByUri(obj.getUri(), (Class<T>) obj.getClass());
         } catch (GoodDataException | RestClientException e) {
             throw new ObjUpdateException(obj, e);
+        } finally {
+            cache.invalidate(obj.getUri());
         }
     }
 
@@ -137,6 +531,8 @@ public class MetadataService extends AbstractService {
             }
         } catch (RestClientException e) {
             throw new GoodDataException("Unable to remove " + obj.getClass().getSimpleName().toLowerCase() + " " + obj.getUri(), e);
+        } finally {
+            cache.invalidate(obj.getUri());
         }
     }
 
@@ -160,11 +556,14 @@ public class MetadataService extends AbstractService {
             }
         } catch (RestClientException e) {
             throw new GoodDataException("Unable to remove " + uri, e);
+        } finally {
+            cache.invalidate(uri);
         }
     }
 
     /**
-     * Get metadata object by id.
+     * Get metadata object by id. The object is served from the {@link #getCache() cache} when enabled,
+     * each call returns a new copy of the object (see {@link #getObjByUri(String, Class)}).
      *
      * @param project project where to search for the object
      * @param id      id of the object
@@ -225,7 +624,12 @@ public class MetadataService extends AbstractService {
     }
 
     /**
-     * Find metadata by restrictions like identifier, title or summary.
+     * Find metadata by restrictions like identifier, title, summary or tag. Entries matching any of the restrictions
+     * are returned, each of them once.
+     * <p>
+     * The query result of the type is downloaded once and indexed, so many restrictions are resolved cheaply.
+     * When the {@link #getCache() cache} is enabled, the indexed result is reused by subsequent calls until it
+     * expires or the project is {@link MetadataCache#flush(Project) flushed}.
      *
      * @param project      project where to search for the metadata
      * @param cls          class of searched metadata
@@ -237,14 +641,22 @@ public class MetadataService extends AbstractService {
     public <T extends Queryable> Collection<Entry> find(Project project, Class<T> cls, Restriction... restrictions) {
         notNull(project, "project");
         notNull(cls, "cls");
+        return getQuery(project, getQueryType(cls)).find(restrictions);
+    }
 
-        final String type = cls.getSimpleName().toLowerCase() +
-                (cls.isAssignableFrom(ReportDefinition.class) ? "" : "s");
+    private QueryIndex getQuery(Project project, String type) {
+        final QueryIndex cached = cache.getQuery(project.getId(), type);
+        if (cached != null) {
+            return cached;
+        }
+        final long generation = cache.getQueryGeneration();
         try {
             final Query queryResult = restTemplate.getForObject(Query.URI, Query.class, project.getId(), type);
 
             if (queryResult != null && queryResult.getEntries() != null) {
-                return filterEntries(queryResult.getEntries(), restrictions);
+                final QueryIndex query = new QueryIndex(queryResult.getEntries());
+                cache.putQuery(project.getId(), type, query, generation);
+                return query;
             } else {
                 throw new GoodDataException("empty response from API call");
             }
@@ -253,27 +665,41 @@ public class MetadataService extends AbstractService {
         }
     }
 
-    private Collection<Entry> filterEntries(Collection<Entry> entries, Restriction... restrictions) {
-        if (restrictions == null || restrictions.length == 0) {
-            return entries;
-        }
-        final Collection<Entry> result = new ArrayList<>(entries.size());
-        for (Entry entry : entries) {
-            for (Restriction restriction : restrictions) {
-                switch (restriction.getType()) {
-                    case IDENTIFIER:
-                        if (restriction.getValue().equals(entry.getIdentifier())) result.add(entry);
-                        break;
-                    case TITLE:
-                        if (restriction.getValue().equals(entry.getTitle())) result.add(entry);
-                        break;
-                    case SUMMARY:
-                        if (restriction.getValue().equals(entry.getSummary())) result.add(entry);
-                        break;
-                }
-            }
+    private static String getQueryType(Class<? extends Queryable> cls) {
+        return cls.getSimpleName().toLowerCase() + (cls.isAssignableFrom(ReportDefinition.class) ? "" : "s");
+    }
+
+    /**
+     * Find metadata by restrictions like identifier, title or summary, handing the matching entries over to
+     * the callback one by one as they are read from the response, without holding the whole query result in memory.
+     *
+     * @param project      project where to search for the metadata
+     * @param cls          class of searched metadata
+     * @param callback     receives the matching entries
+     * @param restrictions query restrictions, no restriction matches all entries
+     * @param <T>          type of the metadata referenced in the entries
+     * @throws com.gooddata.GoodDataException if unable to query metadata
+     */
+    public <T extends Queryable> void find(Project project, Class<T> cls, final ItemCallback<? super Entry> callback,
+                                           final Restriction... restrictions) {
+        notNull(project, "project");
+        notNull(cls, "cls");
+        notNull(callback, "callback");
+
+        final String type = getQueryType(cls);
+        try {
+            streamItems(new UriTemplate(Query.URI).expand(project.getId(), type), Entry.class,
+                    new ItemCallback<Entry>() {
+                        @Override
+                        public void onItem(final Entry entry) {
+                            if (QueryIndex.matches(entry, restrictions)) {
+                                callback.onItem(entry);
+                            }
+                        }
+                    }, "query", "entries");
+        } catch (GoodDataException | RestClientException e) {
+            throw new GoodDataException("Unable to query metadata: " + type, e);
         }
-        return result;
     }
 
     /**
@@ -357,6 +783,103 @@ public class MetadataService extends AbstractService {
         return usages;
     }
 
+    /**
+     * Crawls the dependencies of all attributes and facts of the project, see
+     * {@link #getDependencyGraph(Project, Collection)}. The graph covers all objects using any attribute or fact
+     * (datasets, metrics, reports, dashboards,...).
+     *
+     * @param project project
+     * @return dependency graph of the project
+     * @throws com.gooddata.GoodDataException if unable to query metadata
+     */
+    public DependencyGraph getDependencyGraph(Project project) {
+        notNull(project, "project");
+        final List<String> uris = new ArrayList<>();
+        for (Class<? extends Queryable> type : asList(Attribute.class, Fact.class)) {
+            for (Entry entry : getQuery(project, getQueryType(type)).getEntries()) {
+                uris.add(entry.getLink());
+            }
+        }
+        return getDependencyGraph(project, uris);
+    }
+
+    /**
+     * Crawls the objects using the given objects, directly or transitively. The nearest users of the objects
+     * discovered so far are requested in batches of {@value #USEDBY_BATCH_SIZE} objects, up to
+     * {@value #PARALLEL_GET_LIMIT} batches concurrently, each object is requested once.
+     *
+     * @param project project
+     * @param uris    URIs of the objects to start with
+     * @return dependency graph of the given objects and all objects using them
+     * @throws com.gooddata.GoodDataException if unable to find the using objects
+     */
+    public DependencyGraph getDependencyGraph(final Project project, final Collection<String> uris) {
+        notNull(project, "project");
+        noNullElements(uris, "uris");
+
+        final DependencyGraph graph = new DependencyGraph();
+        List<String> frontier = new ArrayList<>();
+        for (String uri : new LinkedHashSet<>(uris)) {
+            graph.addNode(uri, null);
+            frontier.add(uri);
+        }
+        while (!frontier.isEmpty()) {
+            final Queue<UseManyEntries> usages = new ConcurrentLinkedQueue<>();
+            final AtomicReference<GoodDataException> failure = new AtomicReference<>();
+            final List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < frontier.size(); i += USEDBY_BATCH_SIZE) {
+                final List<String> batch = frontier.subList(i, Math.min(i + USEDBY_BATCH_SIZE, frontier.size()));
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (failure.get() != null) {
+                            return;
+                        }
+                        try {
+                            usages.addAll(getUsedBy(project, batch));
+                        } catch (GoodDataException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                });
+            }
+            if (tasks.size() == 1) {
+                tasks.get(0).run();
+            } else {
+                runInParallel(tasks, PARALLEL_GET_LIMIT);
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+
+            final List<String> discovered = new ArrayList<>();
+            for (UseManyEntries usage : usages) {
+                final int used = graph.addNode(usage.getUri(), null);
+                if (usage.getEntries() == null) {
+                    continue;
+                }
+                for (Entry entry : usage.getEntries()) {
+                    final boolean known = graph.contains(entry.getLink());
+                    graph.addUsage(used, graph.addNode(entry.getLink(), entry));
+                    if (!known) {
+                        discovered.add(entry.getLink());
+                    }
+                }
+            }
+            frontier = discovered;
+        }
+        return graph;
+    }
+
+    private Collection<UseManyEntries> getUsedBy(final Project project, final Collection<String> uris) {
+        try {
+            return restTemplate.postForObject(InUseMany.USEDBY_URI, new InUseMany(uris, true), UseMany.class,
+                    project.getId()).getUseMany();
+        } catch (GoodDataRestException | RestClientException e) {
+            throw new GoodDataException("Unable to find objects.", e);
+        }
+    }
+
     /**
      * Find metadata URIs by restrictions. Identifier is the only supported restriction.
      *
@@ -377,11 +900,14 @@ public class MetadataService extends AbstractService {
             ids.add(restriction.getValue());
         }
 
-        final IdentifiersAndUris response = getUrisForIdentifiers(project, ids);
+        final Map<String, String> identifiersToUris = resolveIdentifiers(project, ids);
 
         final List<String> uris = new ArrayList<>();
-        for (IdentifierAndUri idAndUri : response.getIdentifiers()) {
-            uris.add(idAndUri.getUri());
+        for (String id : new LinkedHashSet<>(ids)) {
+            final String uri = identifiersToUris.get(id);
+            if (uri != null) {
+                uris.add(uri);
+            }
         }
 
         return uris;
@@ -389,6 +915,9 @@ public class MetadataService extends AbstractService {
 
     /**
      * Find metadata URIs for given identifiers.
+     * <p>
+     * Large collections are split to chunks of {@value #IDENTIFIERS_CHUNK_SIZE} identifiers requested concurrently.
+     * Identifiers known by the {@link #getCache() cache} aren't requested, the resolved ones are cached.
      *
      * @param project      project where to search for the metadata
      * @param identifiers query restrictions
@@ -400,14 +929,59 @@ public class MetadataService extends AbstractService {
         notNull(project, "project" );
         noNullElements(identifiers, "identifiers");
 
-        final IdentifiersAndUris response = getUrisForIdentifiers(project, identifiers);
+        return Collections.unmodifiableMap(new HashMap<>(resolveIdentifiers(project, identifiers)));
+    }
+
+    private Map<String, String> resolveIdentifiers(final Project project, final Collection<String> identifiers) {
+        final Map<String, String> identifiersToUris = new ConcurrentHashMap<>();
+        final List<String> missing = new ArrayList<>();
+        for (String identifier : new LinkedHashSet<>(identifiers)) {
+            final String uri = cache.getUri(project.getId(), identifier);
+            if (uri != null) {
+                identifiersToUris.put(identifier, uri);
+            } else {
+                missing.add(identifier);
+            }
+        }
+        if (missing.isEmpty()) {
+            return identifiersToUris;
+        }
+        if (missing.size() <= IDENTIFIERS_CHUNK_SIZE) {
+            putUris(project, getUrisForIdentifiers(project, missing), identifiersToUris);
+            return identifiersToUris;
+        }
+
+        final AtomicReference<GoodDataException> failure = new AtomicReference<>();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += IDENTIFIERS_CHUNK_SIZE) {
+            final List<String> chunk = missing.subList(i, Math.min(i + IDENTIFIERS_CHUNK_SIZE, missing.size()));
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    try {
+                        putUris(project, getUrisForIdentifiers(project, chunk), identifiersToUris);
+                    } catch (GoodDataException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+        runInParallel(tasks, PARALLEL_GET_LIMIT);
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return identifiersToUris;
+    }
 
-        final Map<String, String> identifiersToUris = new HashMap<>();
+    private void putUris(final Project project, final IdentifiersAndUris response,
+                         final Map<String, String> identifiersToUris) {
         for (IdentifierAndUri idAndUri : response.getIdentifiers()) {
             identifiersToUris.put(idAndUri.getIdentifier(), idAndUri.getUri());
+            cache.putUri(project.getId(), idAndUri.getIdentifier(), idAndUri.getUri());
         }
-
-        return Collections.unmodifiableMap(identifiersToUris);
     }
 
     /**
@@ -444,6 +1018,119 @@ public class MetadataService extends AbstractService {
         }
     }
 
+    /**
+     * Lists all attribute elements of given display form as lazily loaded collection, requesting them by pages
+     * of {@value #ATTRIBUTE_ELEMENTS_PAGE_SIZE} elements. Intended for high cardinality attributes, see
+     * {@link #listAllAttributeElements(DisplayForm, String, PageRequest)}.
+     *
+     * @param displayForm display form to fetch attribute elements for
+     * @return attribute elements, empty if there is no link for elements
+     */
+    public PageableIterable<AttributeElement> listAllAttributeElements(DisplayForm displayForm) {
+        return listAllAttributeElements(displayForm, null, new PageRequest(ATTRIBUTE_ELEMENTS_PAGE_SIZE));
+    }
+
+    /**
+     * Lists attribute elements of given display form as lazily loaded collection, requesting them by pages starting
+     * with the given one. The next page is prefetched in the background while the elements of the current one
+     * are consumed. Use {@link PageableIterable#withBoundedMemory()} to avoid retaining the iterated pages
+     * and {@link PageableIterable#withParallelism(int, int)} to request multiple pages at once.
+     *
+     * @param displayForm display form to fetch attribute elements for
+     * @param filter      filter of the element titles (substring match), null for all elements
+     * @param startPage   offset and limit (page size) of the first page
+     * @return attribute elements, empty if there is no link for elements
+     */
+    public PageableIterable<AttributeElement> listAllAttributeElements(final DisplayForm displayForm,
+                                                                       final String filter,
+                                                                       final PageRequest startPage) {
+        notNull(displayForm, "displayForm");
+        notNull(startPage, "startPage");
+        isTrue(startPage.getLimit() > 0, "startPage limit must be greater than zero");
+
+        final String elementsLink = displayForm.getElementsLink();
+        return allPages(new PageLoader<AttributeElement>() {
+            @Override
+            public PageableList<AttributeElement> load(final Page page) {
+                if (StringUtils.isEmpty(elementsLink)) {
+                    return new PageableList<>();
+                }
+                return getAttributeElementsPage(elementsLink, filter, page == null ? startPage : page,
+                        startPage.getLimit());
+            }
+        }, startPage);
+    }
+
+    /**
+     * Returns dictionary of all elements of given display form for the lookup of element URIs by titles and vice versa.
+     * The elements are requested by pages, see {@link #listAllAttributeElements(DisplayForm)}. The dictionary is kept
+     * in the {@link #getCache() cache} when enabled; use {@link MetadataCache#invalidate(String)} with the display form
+     * URI when the elements change (e.g. by ETL).
+     *
+     * @param displayForm display form to fetch attribute elements for
+     * @param offHeap     whether to store the dictionary off-heap, intended for millions of elements; a cached
+     *                    dictionary is returned as is
+     * @return element dictionary, empty if there is no link for elements
+     * @throws IllegalArgumentException when the element URIs don't end with numeric ids
+     */
+    public AttributeElementDictionary getAttributeElementDictionary(DisplayForm displayForm, boolean offHeap) {
+        notNull(displayForm, "displayForm");
+        final String uri = displayForm.getUri();
+        final AttributeElementDictionary cached = uri == null ? null : cache.getDictionary(uri);
+        if (cached != null) {
+            return cached;
+        }
+        final AttributeElementDictionary dictionary =
+                new AttributeElementDictionary(listAllAttributeElements(displayForm).withBoundedMemory(), offHeap);
+        if (uri != null) {
+            cache.putDictionary(uri, dictionary);
+        }
+        return dictionary;
+    }
+
+    private PageableList<AttributeElement> getAttributeElementsPage(final String elementsLink, final String filter,
+                                                                    final Page page, final int limit) {
+        final UriComponentsBuilder builder = elementsUriBuilder(elementsLink);
+        if (filter != null) {
+            builder.replaceQueryParam("filter", filter);
+        }
+        final UriComponents pageParams = page.updateWithPageParams(UriComponentsBuilder.newInstance()).build();
+        for (Map.Entry<String, List<String>> param : pageParams.getQueryParams().entrySet()) {
+            builder.replaceQueryParam(param.getKey(), param.getValue().toArray());
+        }
+        final URI uri = builder.build().encode().toUri();
+        final AttributeElements response;
+        try {
+            response = restTemplate.getForObject(uri, AttributeElements.class);
+        } catch (GoodDataRestException | RestClientException e) {
+            throw new GoodDataException("Unable to get attribute elements from " + uri + ".", e);
+        }
+        final List<AttributeElement> elements = response.getElements();
+        final AttributeElements.ElementsMeta meta = response.getMeta();
+        final int offset;
+        if (meta != null && meta.getOffset() != null) {
+            offset = meta.getOffset();
+        } else if (page instanceof PageRequest && ((PageRequest) page).getOffset() != null) {
+            offset = Integer.parseInt(((PageRequest) page).getOffset());
+        } else {
+            offset = 0;
+        }
+        final int next = offset + elements.size();
+        final boolean hasNext = elements.size() >= limit
+                && (meta == null || meta.getRecords() == null || next < meta.getRecords());
+        // the filter is added to the next page link when it's requested
+        final String nextUri = hasNext ? new PageRequest(next, limit)
+                .updateWithPageParams(elementsUriBuilder(elementsLink)).build().toUriString() : null;
+        return new PageableList<>(elements, new Paging(String.valueOf(offset), nextUri));
+    }
+
+    /**
+     * The elements link can come with the paging already, it's replaced by the requested one
+     */
+    private static UriComponentsBuilder elementsUriBuilder(final String elementsLink) {
+        return UriComponentsBuilder.fromUriString(elementsLink).replaceQueryParam("offset").replaceQueryParam("limit");
+    }
+
     private IdentifiersAndUris getUrisForIdentifiers(final Project project, final Collection<String> identifiers) {
         final IdentifiersAndUris response;
         try {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.noNullElements;
+import static com.gooddata.util.Validate.notEmpty;
+import static com.gooddata.util.Validate.notNull;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Set of metadata objects to be created by {@link MetadataService#createObjs(com.gooddata.project.Project, ObjBatch)},
+ * each of them identified by a key (e.g. its identifier). Objects referring other objects of the batch declare
+ * them as dependencies and are built by {@link ObjFactory} once URIs of the dependencies are known.
+ * <p>
+ * Example: metric and report definition referring it
+ * <pre><code>
+ * final ObjBatch batch = new ObjBatch()
+ *     .add("metric", new Metric("Sum", "SELECT SUM([" + factUri + "])", "#,##0"))
+ *     .add("definition", new ObjFactory() {
+ *         public Obj create(Map&lt;String, String&gt; uris) {
+ *             return GridReportDefinitionContent.create("Sum report", asList("metricGroup"),
+ *                     Collections.&lt;AttributeInGrid&gt;emptyList(),
+ *                     asList(new GridElement(uris.get("metric"), "Sum")));
+ *         }
+ *     }, "metric");
+ * final ObjBatchResult result = metadataService.createObjs(project, batch);
+ * </code></pre>
+ */
+public class ObjBatch {
+
+    private final Map<String, Item> items = new LinkedHashMap<>();
+
+    /**
+     * Adds the object without dependencies.
+     *
+     * @param key unique key of the object
+     * @param obj object to be created
+     * @return this batch
+     */
+    public ObjBatch add(final String key, final Obj obj) {
+        notNull(obj, "obj");
+        return add(key, new ObjFactory() {
+            @Override
+            public Obj create(final Map<String, String> uris) {
+                return obj;
+            }
+        });
+    }
+
+    /**
+     * Adds the object built from URIs of its dependencies.
+     *
+     * @param key          unique key of the object
+     * @param factory      builds the object once the dependencies are created
+     * @param dependencies keys of the objects of this batch the object depends on
+     * @return this batch
+     */
+    public ObjBatch add(final String key, final ObjFactory factory, final String... dependencies) {
+        notEmpty(key, "key");
+        notNull(factory, "factory");
+        noNullElements(dependencies, "dependencies");
+        isTrue(!items.containsKey(key), "key " + key + " already added");
+        items.put(key, new Item(factory, Arrays.asList(dependencies)));
+        return this;
+    }
+
+    /**
+     * @return number of objects in the batch
+     */
+    public int size() {
+        return items.size();
+    }
+
+    ObjFactory getFactory(final String key) {
+        return items.get(key).factory;
+    }
+
+    List<String> getDependencies(final String key) {
+        return items.get(key).dependencies;
+    }
+
+    /**
+     * Sorts the objects to levels, objects of a level depend only on objects of the previous levels.
+     *
+     * @return keys of the objects by levels
+     * @throws IllegalArgumentException when a dependency isn't in the batch or dependencies are cyclic
+     */
+    List<List<String>> getLevels() {
+        final Map<String, Integer> unresolved = new HashMap<>();
+        final Map<String, List<String>> dependents = new HashMap<>();
+        for (Map.Entry<String, Item> item : items.entrySet()) {
+            unresolved.put(item.getKey(), item.getValue().dependencies.size());
+            for (String dependency : item.getValue().dependencies) {
+                isTrue(items.containsKey(dependency), "unknown dependency " + dependency + " of " + item.getKey());
+                List<String> keys = dependents.get(dependency);
+                if (keys == null) {
+                    keys = new ArrayList<>();
+                    dependents.put(dependency, keys);
+                }
+                keys.add(item.getKey());
+            }
+        }
+
+        final List<List<String>> levels = new ArrayList<>();
+        Deque<String> level = new ArrayDeque<>();
+        for (String key : items.keySet()) {
+            if (unresolved.get(key) == 0) {
+                level.add(key);
+            }
+        }
+        int sorted = 0;
+        while (!level.isEmpty()) {
+            levels.add(new ArrayList<>(level));
+            sorted += level.size();
+            final Deque<String> next = new ArrayDeque<>();
+            for (String key : level) {
+                final List<String> keys = dependents.containsKey(key) ? dependents.get(key)
+                        : Collections.<String>emptyList();
+                for (String dependent : keys) {
+                    final int remaining = unresolved.get(dependent) - 1;
+                    unresolved.put(dependent, remaining);
+                    if (remaining == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            level = next;
+        }
+        isTrue(sorted == items.size(), "cyclic dependencies in batch");
+        return levels;
+    }
+
+    private static class Item {
+        private final ObjFactory factory;
+        private final List<String> dependencies;
+
+        private Item(final ObjFactory factory, final List<String> dependencies) {
+            this.factory = factory;
+            this.dependencies = dependencies;
+        }
+    }
+}
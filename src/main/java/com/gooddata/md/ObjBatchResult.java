@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import com.gooddata.GoodDataException;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of {@link MetadataService#createObjs(com.gooddata.project.Project, ObjBatch)}, URIs of the created objects
+ * and failures of the others keyed by their batch keys.
+ */
+public class ObjBatchResult {
+
+    private final Map<String, String> uris;
+    private final Map<String, GoodDataException> failures;
+
+    ObjBatchResult(final Map<String, String> uris, final Map<String, GoodDataException> failures) {
+        this.uris = Collections.unmodifiableMap(uris);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return URIs of the created objects keyed by batch keys
+     */
+    public Map<String, String> getUris() {
+        return uris;
+    }
+
+    /**
+     * @return failures of the objects which weren't created keyed by batch keys, objects depending on a failed
+     * object aren't attempted and fail as well
+     */
+    public Map<String, GoodDataException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return true if any object wasn't created
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
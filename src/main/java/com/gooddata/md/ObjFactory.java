@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import java.util.Map;
+
+/**
+ * Builds a metadata object of {@link ObjBatch} once its dependencies are created.
+ */
+public interface ObjFactory {
+
+    /**
+     * Builds the object.
+     *
+     * @param uris URIs of the already created objects of the batch keyed by their batch keys,
+     *             contains all dependencies of the object
+     * @return object to be created
+     */
+    Obj create(Map<String, String> uris);
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import com.gooddata.GoodDataException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@link MetadataService#getObjsByUris(Collection, Class)}, the objects which were loaded and the failures
+ * of those which were not, both in the order of the requested URIs.
+ *
+ * @param <T> type of the objects
+ */
+public class ObjsResult<T extends Obj> {
+
+    private final Map<String, T> objs;
+    private final Map<String, GoodDataException> failures;
+
+    ObjsResult(final Collection<String> uris, final Map<String, T> objs,
+               final Map<String, GoodDataException> failures) {
+        final Map<String, T> orderedObjs = new LinkedHashMap<>();
+        final Map<String, GoodDataException> orderedFailures = new LinkedHashMap<>();
+        for (String uri : uris) {
+            if (objs.containsKey(uri)) {
+                orderedObjs.put(uri, objs.get(uri));
+            } else if (failures.containsKey(uri)) {
+                orderedFailures.put(uri, failures.get(uri));
+            }
+        }
+        this.objs = Collections.unmodifiableMap(orderedObjs);
+        this.failures = Collections.unmodifiableMap(orderedFailures);
+    }
+
+    /**
+     * @return loaded objects in the order of the requested URIs
+     */
+    public List<T> getObjs() {
+        return new ArrayList<>(objs.values());
+    }
+
+    /**
+     * Returns the loaded object of the given URI.
+     *
+     * @param uri URI of the object
+     * @return the object or null when it wasn't loaded
+     */
+    public T getObj(final String uri) {
+        return objs.get(uri);
+    }
+
+    /**
+     * @return failures of the objects which weren't loaded keyed by URI, e.g. {@link ObjNotFoundException}
+     */
+    public Map<String, GoodDataException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return true if any object wasn't loaded
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.md;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Snapshot of the metadata query result of a single type with hash indexes of the entries by identifier, title,
+ * summary and tags, so the restrictions are resolved without scanning all entries.
+ * Immutable, so it can be shared by concurrent callers.
+ */
+class QueryIndex {
+
+    private final List<Entry> entries;
+    private final Map<Restriction.Type, Map<String, BitSet>> indexes = new HashMap<>();
+
+    QueryIndex(final Collection<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(notNull(entries, "entries")));
+        for (Restriction.Type type : Restriction.Type.values()) {
+            indexes.put(type, new HashMap<String, BitSet>());
+        }
+        for (int i = 0; i < this.entries.size(); i++) {
+            for (Restriction.Type type : Restriction.Type.values()) {
+                for (String value : getValues(type, this.entries.get(i))) {
+                    index(type, value, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns values of the entry compared with the value of the restriction of the given type.
+     *
+     * @param type  restriction type
+     * @param entry entry
+     * @return values, empty when the entry has none
+     */
+    static List<String> getValues(final Restriction.Type type, final Entry entry) {
+        final String value;
+        switch (type) {
+            case IDENTIFIER:
+                value = entry.getIdentifier();
+                break;
+            case TITLE:
+                value = entry.getTitle();
+                break;
+            case SUMMARY:
+                value = entry.getSummary();
+                break;
+            case TAG:
+                if (entry.getTags() == null) {
+                    return Collections.emptyList();
+                }
+                final List<String> tags = new ArrayList<>();
+                for (String tag : entry.getTags().split("\\s+")) {
+                    if (!tag.isEmpty()) {
+                        tags.add(tag);
+                    }
+                }
+                return tags;
+            default:
+                throw new IllegalArgumentException("Unsupported restriction type " + type);
+        }
+        return value == null ? Collections.<String>emptyList() : Collections.singletonList(value);
+    }
+
+    /**
+     * Tells whether the entry matches any of the restrictions, the same way as {@link #find(Restriction...)}.
+     *
+     * @param entry        entry
+     * @param restrictions restrictions, none matches all entries
+     * @return true when the entry matches
+     */
+    static boolean matches(final Entry entry, final Restriction... restrictions) {
+        if (restrictions == null || restrictions.length == 0) {
+            return true;
+        }
+        for (Restriction restriction : restrictions) {
+            if (getValues(restriction.getType(), entry).contains(restriction.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void index(final Restriction.Type type, final String value, final int position) {
+        if (value == null) {
+            return;
+        }
+        final Map<String, BitSet> index = indexes.get(type);
+        BitSet positions = index.get(value);
+        if (positions == null) {
+            positions = new BitSet();
+            index.put(value, positions);
+        }
+        positions.set(position);
+    }
+
+    /**
+     * @return all entries in the order of the query result
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Finds entries matching any of the restrictions, each entry is returned once in the order of the query result.
+     *
+     * @param restrictions restrictions, none matches all entries
+     * @return new list of the matching entries
+     */
+    List<Entry> find(final Restriction... restrictions) {
+        if (restrictions == null || restrictions.length == 0) {
+            return new ArrayList<>(entries);
+        }
+        final BitSet matching = new BitSet(entries.size());
+        for (Restriction restriction : restrictions) {
+            final BitSet positions = indexes.get(restriction.getType()).get(restriction.getValue());
+            if (positions != null) {
+                matching.or(positions);
+            }
+        }
+        final List<Entry> result = new ArrayList<>(matching.cardinality());
+        for (int i = matching.nextSetBit(0); i >= 0; i = matching.nextSetBit(i + 1)) {
+            result.add(entries.get(i));
+        }
+        return result;
+    }
+}
@@ -52,7 +52,17 @@ public class Restriction {
         return new Restriction(Type.SUMMARY, value);
     }
 
+    /**
+     * Construct a new instance with restriction type tag and given value.
+     *
+     * @param value tag you want to search for (one of the space separated tags of the object)
+     * @return new restriction for tag restriction
+     */
+    public static Restriction tag(String value) {
+        return new Restriction(Type.TAG, value);
+    }
+
     static enum Type {
-        IDENTIFIER, TITLE, SUMMARY
+        IDENTIFIER, TITLE, SUMMARY, TAG
     }
 }
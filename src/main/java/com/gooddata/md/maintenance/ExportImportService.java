@@ -8,16 +8,20 @@ import static com.gooddata.util.Validate.notNull;
 
 import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.gdc.TaskStatus;
 import com.gooddata.gdc.UriResponse;
 import com.gooddata.project.Project;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.Callable;
+
 /**
  * Service providing metadata export/import tasks.
  */
@@ -27,6 +31,16 @@ public class ExportImportService extends AbstractService {
         super(restTemplate);
     }
 
+    /**
+     * Constructs service for metadata export/import.
+     *
+     * @param restTemplate  RESTful HTTP Spring template
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public ExportImportService(RestTemplate restTemplate, PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+    }
+
 
     /**
      * Exports partial metadata from project and returns token identifying this export
@@ -64,6 +78,27 @@ public class ExportImportService extends AbstractService {
         });
     }
 
+    /**
+     * Exports partial metadata from project in the background. The export is started using executor set by
+     * {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)} and its status is polled
+     * asynchronously.
+     *
+     * @param project project from which metadata should be exported
+     * @param export export to execute
+     * @return {@link AsyncResult} of the task containing token identifying partial export after the task is completed,
+     * failed with {@link ExportImportException} when the export fails
+     */
+    public AsyncResult<PartialMdExportToken> partialExportAsync(final Project project, final PartialMdExport export) {
+        notNull(project, "project");
+        notNull(export, "export");
+        return executeAsync(new Callable<FutureResult<PartialMdExportToken>>() {
+            @Override
+            public FutureResult<PartialMdExportToken> call() {
+                return partialExport(project, export);
+            }
+        });
+    }
+
     /**
      * Imports partial metadata to project based on given token
      *
@@ -4,8 +4,10 @@
 package com.gooddata.model;
 
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.AbstractPollHandlerBase;
 import com.gooddata.SimplePollHandler;
@@ -21,6 +23,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.Callable;
 
 import static com.gooddata.util.Validate.noNullElements;
 import static com.gooddata.util.Validate.notNull;
@@ -36,6 +39,16 @@ public class ModelService extends AbstractService {
         super(restTemplate);
     }
 
+    /**
+     * Constructs service for project model management.
+     *
+     * @param restTemplate  RESTful HTTP Spring template
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public ModelService(RestTemplate restTemplate, PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+    }
+
     private FutureResult<ModelDiff> getProjectModelDiff(Project project, DiffRequest diffRequest) {
         notNull(project, "project");
         notNull(diffRequest, "diffRequest");
@@ -179,4 +192,37 @@ public class ModelService extends AbstractService {
         });
     }
 
+    /**
+     * Update project model with the MAQL script from given ModelDiff in the background
+     * (see {@link #updateProjectModel(com.gooddata.project.Project, ModelDiff)}).
+     *
+     * @param project   project to be updated
+     * @param modelDiff difference of model to be applied into the project
+     * @return async result
+     */
+    public AsyncResult<Void> updateProjectModelAsync(final Project project, final ModelDiff modelDiff) {
+        notNull(modelDiff, "modelDiff");
+        return updateProjectModelAsync(project, modelDiff.getUpdateMaql());
+    }
+
+    /**
+     * Update project model with the given update script(s) (MAQL) in the background. The script chunks are posted
+     * using executor set by {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)}
+     * and polled asynchronously.
+     *
+     * @param project project to be updated
+     * @param maqlDdl update script to be executed in the project
+     * @return async result
+     */
+    public AsyncResult<Void> updateProjectModelAsync(final Project project, final Collection<String> maqlDdl) {
+        notNull(project, "project");
+        noNullElements(maqlDdl, "maqlDdl");
+        return executeAsync(new Callable<FutureResult<Void>>() {
+            @Override
+            public FutureResult<Void> call() {
+                return updateProjectModel(project, maqlDdl);
+            }
+        });
+    }
+
 }
@@ -5,14 +5,20 @@ package com.gooddata.project;
 
 import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
+import com.gooddata.ItemCallback;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.SimplePollHandler;
 import com.gooddata.account.AccountService;
 import com.gooddata.collections.Page;
+import com.gooddata.collections.PageLoader;
+import com.gooddata.collections.PageableIterable;
 import com.gooddata.collections.PageableList;
+import com.gooddata.collections.Paging;
 import com.gooddata.featureflag.FeatureFlagService;
 import com.gooddata.gdc.AsyncTask;
 import com.gooddata.gdc.FeatureFlag;
@@ -22,6 +28,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriTemplate;
 
 import java.io.IOException;
 import java.net.URI;
@@ -30,6 +37,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import static com.gooddata.gdc.FeatureFlags.AGGREGATED_FEATURE_FLAGS_TEMPLATE;
 import static com.gooddata.project.ProjectFeatureFlag.FEATURE_FLAG_TEMPLATE;
@@ -64,6 +72,18 @@ public class ProjectService extends AbstractService {
         this.accountService = notNull(accountService, "accountService");
     }
 
+    /**
+     * Constructs service for GoodData project management (list projects, create a project, ...).
+     *
+     * @param restTemplate   RESTful HTTP Spring template
+     * @param accountService GoodData account service
+     * @param pollScheduler  scheduler driving asynchronous polling
+     */
+    public ProjectService(RestTemplate restTemplate, AccountService accountService, PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+        this.accountService = notNull(accountService, "accountService");
+    }
+
     /**
      * Get all projects current user has access to.
      *
@@ -80,6 +100,23 @@ public class ProjectService extends AbstractService {
         }
     }
 
+    /**
+     * Hands over the projects of the authorized user to the callback one by one as they are read from the response,
+     * without holding the whole collection in memory.
+     *
+     * @param callback receives the projects
+     * @throws com.gooddata.GoodDataException when projects can't be accessed
+     */
+    public void forEachProject(final ItemCallback<? super Project> callback) {
+        notNull(callback, "callback");
+        try {
+            final String id = accountService.getCurrent().getId();
+            streamItems(new UriTemplate(Project.PROJECTS_URI).expand(id), Project.class, callback, "projects");
+        } catch (GoodDataException | RestClientException e) {
+            throw new GoodDataException("Unable to get projects", e);
+        }
+    }
+
     /**
      * Create new project.
      *
@@ -123,6 +160,25 @@ public class ProjectService extends AbstractService {
         });
     }
 
+    /**
+     * Create new project in the background. The project is POSTed using executor set by
+     * {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)} and its state is polled
+     * asynchronously.
+     *
+     * @param project project to be created
+     * @return async result of the created project, failed with {@link com.gooddata.GoodDataException} when projects
+     * creation fails
+     */
+    public AsyncResult<Project> createProjectAsync(final Project project) {
+        notNull(project, "project");
+        return executeAsync(new Callable<FutureResult<Project>>() {
+            @Override
+            public FutureResult<Project> call() {
+                return createProject(project);
+            }
+        });
+    }
+
     /**
      * Get project by URI.
      *
@@ -290,6 +346,61 @@ public class ProjectService extends AbstractService {
         return listUsers(page.getPageUri(fromUri(getUsersUri(project))));
     }
 
+    /**
+     * Get all users of given project as lazily loaded collection. The pages are requested while iterating and
+     * the next page is prefetched while the current one is processed.
+     *
+     * @param project project of users
+     * @return all users of the project
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<User> listAllUsers(Project project) {
+        return listAllUsers(project, null);
+    }
+
+    /**
+     * Get all users of given project as lazily loaded collection starting with the given page
+     * (e.g. to change the page size).
+     *
+     * @param project   project of users
+     * @param startPage first page to be retrieved
+     * @return users of the project starting with the given page
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<User> listAllUsers(final Project project, final Page startPage) {
+        notNull(project, "project");
+        return allPages(new PageLoader<User>() {
+            @Override
+            public PageableList<User> load(final Page page) {
+                return page == null ? listUsers(getUsersUri(project))
+                        : listUsers(page.getPageUri(fromUri(getUsersUri(project))));
+            }
+        }, startPage);
+    }
+
+    /**
+     * Hands over all users of given project to the callback one by one as they are read from the responses,
+     * following the pages, without holding the whole collection in memory.
+     *
+     * @param project  project of users
+     * @param callback receives the users
+     */
+    public void forEachUser(final Project project, final ItemCallback<? super User> callback) {
+        notNull(project, "project");
+        notNull(callback, "callback");
+        final URI usersUri = getUsersUri(project);
+        try {
+            URI uri = usersUri;
+            while (uri != null) {
+                final Paging paging = streamItems(uri, User.class, callback, "users");
+                final Page next = paging == null ? null : paging.getNext();
+                uri = next == null ? null : next.getPageUri(fromUri(usersUri));
+            }
+        } catch (GoodDataException | RestClientException e) {
+            throw new GoodDataException("Unable to list users", e);
+        }
+    }
+
     private PageableList<User> listUsers(URI uri) {
         try {
             final Users users = restTemplate.getForObject(uri, Users.class);
@@ -4,8 +4,10 @@
 package com.gooddata.report;
 
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.SimplePollHandler;
@@ -22,6 +24,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.Callable;
 
 import static com.gooddata.util.Validate.notNull;
 import static org.springframework.http.HttpMethod.GET;
@@ -38,6 +41,16 @@ public class ReportService extends AbstractService {
         super(restTemplate);
     }
 
+    /**
+     * Constructs service for report export.
+     *
+     * @param restTemplate  RESTful HTTP Spring template
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public ReportService(final RestTemplate restTemplate, final PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+    }
+
     /**
      * Export the given report definition in the given format to the given output strream
      * @param reportDefinition report definition
@@ -70,6 +83,52 @@ public class ReportService extends AbstractService {
         return exportReport(request, format, output);
     }
 
+    /**
+     * Export the given report definition in the given format to the given output stream in the background.
+     * The report is executed using executor set by
+     * {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)} and the export
+     * is polled asynchronously.
+     * @param reportDefinition report definition
+     * @param format export format
+     * @param output target
+     * @return async result, failed with {@link NoDataReportException} in case report contains no data or
+     * {@link ReportException} on error
+     */
+    public AsyncResult<Void> exportReportAsync(final ReportDefinition reportDefinition, final ReportExportFormat format,
+                                               final OutputStream output) {
+        notNull(reportDefinition, "reportDefinition");
+        notNull(format, "format");
+        notNull(output, "output");
+        return executeAsync(new Callable<FutureResult<Void>>() {
+            @Override
+            public FutureResult<Void> call() {
+                return exportReport(reportDefinition, format, output);
+            }
+        });
+    }
+
+    /**
+     * Export the given report in the given format to the given output stream in the background.
+     * @param report report
+     * @param format export format
+     * @param output target
+     * @return async result, failed with {@link NoDataReportException} in case report contains no data or
+     * {@link ReportException} on error
+     * @see #exportReportAsync(ReportDefinition, ReportExportFormat, OutputStream)
+     */
+    public AsyncResult<Void> exportReportAsync(final Report report, final ReportExportFormat format,
+                                               final OutputStream output) {
+        notNull(report, "report");
+        notNull(format, "format");
+        notNull(output, "output");
+        return executeAsync(new Callable<FutureResult<Void>>() {
+            @Override
+            public FutureResult<Void> call() {
+                return exportReport(report, format, output);
+            }
+        });
+    }
+
     private FutureResult<Void> exportReport(final ReportRequest request, final ReportExportFormat format, final OutputStream output) {
         notNull(output, "output");
         notNull(format, "format");
@@ -86,6 +145,11 @@ public class ReportService extends AbstractService {
                 }
             }
 
+            @Override
+            public boolean isStatusOnly() {
+                return true;
+            }
+
             @Override
             public void handlePollException(final GoodDataRestException e) {
                 throw new ReportException("Unable to export report", e);
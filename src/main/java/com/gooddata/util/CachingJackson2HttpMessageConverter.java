@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2007-2016, GoodData(R) Corporation. All rights reserved.
+ */
+package com.gooddata.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * JSON message converter reusing {@link ObjectReader} and {@link ObjectWriter} instances prepared once per type,
+ * so the frequently exchanged payloads (metadata objects, task statuses, paged lists, ...) don't need to resolve
+ * their root (de)serializers and configuration on every request.
+ * <p>
+ * The readers and writers are bound to the current mapper, they are dropped when the mapper is replaced
+ * or reconfigured by the converter.
+ */
+public class CachingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private volatile Cache cache;
+
+    private String jsonPrefix;
+
+    public CachingJackson2HttpMessageConverter(final ObjectMapper mapper) {
+        setObjectMapper(notNull(mapper, "mapper"));
+    }
+
+    @Override
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        super.setObjectMapper(objectMapper);
+        cache = new Cache(objectMapper);
+    }
+
+    @Override
+    public void setJsonPrefix(final String jsonPrefix) {
+        super.setJsonPrefix(jsonPrefix);
+        this.jsonPrefix = jsonPrefix;
+    }
+
+    @Override
+    public void setPrefixJson(final boolean prefixJson) {
+        super.setPrefixJson(prefixJson);
+        this.jsonPrefix = prefixJson ? "{} && " : null;
+    }
+
+    @Override
+    public void setPrettyPrint(final boolean prettyPrint) {
+        super.setPrettyPrint(prettyPrint);
+        // the writers keep the configuration of the mapper they were created with
+        cache = new Cache(getObjectMapper());
+    }
+
+    /**
+     * Returns reader of the given type
+     *
+     * @param type type to read
+     * @return cached reader
+     */
+    public ObjectReader getReader(final Class<?> type) {
+        return cache.getReader(type);
+    }
+
+    /**
+     * Returns reader of the given type
+     *
+     * @param type type to read
+     * @return cached reader
+     */
+    public ObjectReader getReader(final JavaType type) {
+        return cache.getReader(type);
+    }
+
+    /**
+     * Returns writer of the given type
+     *
+     * @param type type to write
+     * @return cached writer
+     */
+    public ObjectWriter getWriter(final Class<?> type) {
+        return cache.getWriter(type);
+    }
+
+    @Override
+    protected Object readInternal(final Class<?> clazz, final HttpInputMessage inputMessage) throws IOException {
+        return read(getReader(clazz), inputMessage);
+    }
+
+    /**
+     * Used by {@link org.springframework.web.client.RestTemplate} for all responses, as this converter
+     * is {@link org.springframework.http.converter.GenericHttpMessageConverter}
+     */
+    @Override
+    public Object read(final Type type, final Class<?> contextClass, final HttpInputMessage inputMessage)
+            throws IOException {
+        return read(getReader(getJavaType(type, contextClass)), inputMessage);
+    }
+
+    private static Object read(final ObjectReader reader, final HttpInputMessage inputMessage) throws IOException {
+        try {
+            return reader.readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Could not read JSON: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final HttpOutputMessage outputMessage) throws IOException {
+        final Cache cache = this.cache;
+        final JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders().getContentType());
+        final JsonGenerator generator = cache.mapper.getFactory().createGenerator(outputMessage.getBody(), encoding);
+        // the body is closed by the caller
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            if (cache.mapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            if (jsonPrefix != null) {
+                generator.writeRaw(jsonPrefix);
+            }
+            cache.getWriter(object.getClass()).writeValue(generator, object);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getMessage(), e);
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Readers and writers of single mapper, replaced as whole together with the mapper
+     */
+    private static class Cache {
+
+        private final ObjectMapper mapper;
+
+        private final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Cache(final ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        private ObjectReader getReader(final Class<?> type) {
+            return getReader(mapper.constructType(type));
+        }
+
+        private ObjectReader getReader(final JavaType type) {
+            ObjectReader reader = readers.get(type);
+            if (reader == null) {
+                reader = mapper.readerFor(type);
+                readers.putIfAbsent(type, reader);
+            }
+            return reader;
+        }
+
+        private ObjectWriter getWriter(final Class<?> type) {
+            ObjectWriter writer = writers.get(type);
+            if (writer == null) {
+                writer = mapper.writerFor(type);
+                writers.putIfAbsent(type, writer);
+            }
+            return writer;
+        }
+    }
+}
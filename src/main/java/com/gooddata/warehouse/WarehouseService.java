@@ -2,11 +2,15 @@ package com.gooddata.warehouse;
 
 import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
+import com.gooddata.AsyncResult;
 import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.PollResult;
+import com.gooddata.PollScheduler;
 import com.gooddata.collections.Page;
+import com.gooddata.collections.PageLoader;
+import com.gooddata.collections.PageableIterable;
 import com.gooddata.collections.PageableList;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
@@ -17,6 +21,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Callable;
 
 import static com.gooddata.util.Validate.notEmpty;
 import static com.gooddata.util.Validate.notNull;
@@ -36,6 +41,16 @@ public class WarehouseService extends AbstractService {
         super(restTemplate);
     }
 
+    /**
+     * Sets RESTful HTTP Spring template and scheduler used for asynchronous polling.
+     *
+     * @param restTemplate  RESTful HTTP Spring template
+     * @param pollScheduler scheduler driving asynchronous polling
+     */
+    public WarehouseService(RestTemplate restTemplate, PollScheduler pollScheduler) {
+        super(restTemplate, pollScheduler);
+    }
+
     /**
      * Create new warehouse.
      *
@@ -63,6 +78,11 @@ public class WarehouseService extends AbstractService {
                 return HttpStatus.CREATED.equals(response.getStatusCode());
             }
 
+            @Override
+            public boolean isStatusOnly() {
+                return true;
+            }
+
             @Override
             protected void onFinish() {
                 if (!getResult().isEnabled()) {
@@ -88,6 +108,25 @@ public class WarehouseService extends AbstractService {
         });
     }
 
+    /**
+     * Create new warehouse in the background. The warehouse is POSTed using executor set by
+     * {@link com.gooddata.GoodDataSettings#setAsyncExecutor(java.util.concurrent.Executor)} and the creation task
+     * is polled asynchronously.
+     *
+     * @param warehouse warehouse to create
+     *
+     * @return async result of the created warehouse
+     */
+    public AsyncResult<Warehouse> createWarehouseAsync(final Warehouse warehouse) {
+        notNull(warehouse, "warehouse");
+        return executeAsync(new Callable<FutureResult<Warehouse>>() {
+            @Override
+            public FutureResult<Warehouse> call() {
+                return createWarehouse(warehouse);
+            }
+        });
+    }
+
     /**
      * Delete Warehouse.
      * @param warehouse to delete
@@ -171,13 +210,74 @@ public class WarehouseService extends AbstractService {
         }
     }
 
+    /**
+     * Get all warehouse instances as lazily loaded collection. The pages are requested while iterating and
+     * the next page is prefetched while the current one is processed.
+     *
+     * @return all warehouse instances
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<Warehouse> listAllWarehouses() {
+        return listAllWarehouses(null);
+    }
+
+    /**
+     * Get all warehouse instances as lazily loaded collection starting with the given page.
+     *
+     * @param startPage first page to be retrieved
+     * @return warehouse instances starting with the given page
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<Warehouse> listAllWarehouses(final Page startPage) {
+        return allPages(new PageLoader<Warehouse>() {
+            @Override
+            public PageableList<Warehouse> load(final Page page) {
+                return page == null ? listWarehouses() : listWarehouses(page);
+            }
+        }, startPage);
+    }
+
     public PageableList<WarehouseUser> listWarehouseUsers(final Warehouse warehouse, final Page page) {
         notNull(warehouse, "warehouse");
         notNull(warehouse.getId(), "warehouse.id");
         notNull(page, "page");
+        return listWarehouseUsers(warehouse, page.getPageUri(getWarehouseUsersUriBuilder(warehouse)));
+    }
+
+    /**
+     * Get all users of given warehouse as lazily loaded collection. The pages are requested while iterating and
+     * the next page is prefetched while the current one is processed.
+     *
+     * @param warehouse warehouse of users
+     * @return all users of the warehouse
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<WarehouseUser> listAllWarehouseUsers(final Warehouse warehouse) {
+        return listAllWarehouseUsers(warehouse, null);
+    }
+
+    /**
+     * Get all users of given warehouse as lazily loaded collection starting with the given page.
+     *
+     * @param warehouse warehouse of users
+     * @param startPage first page to be retrieved
+     * @return users of the warehouse starting with the given page
+     * @see PageableIterable#withBoundedMemory()
+     */
+    public PageableIterable<WarehouseUser> listAllWarehouseUsers(final Warehouse warehouse, final Page startPage) {
+        notNull(warehouse, "warehouse");
+        notNull(warehouse.getId(), "warehouse.id");
+        return allPages(new PageLoader<WarehouseUser>() {
+            @Override
+            public PageableList<WarehouseUser> load(final Page page) {
+                final UriComponentsBuilder builder = getWarehouseUsersUriBuilder(warehouse);
+                return listWarehouseUsers(warehouse, page == null ? builder.build().toUri() : page.getPageUri(builder));
+            }
+        }, startPage);
+    }
+
+    private PageableList<WarehouseUser> listWarehouseUsers(final Warehouse warehouse, final URI uri) {
         try {
-            final UriComponentsBuilder builder = UriComponentsBuilder.fromUri(WarehouseUsers.TEMPLATE.expand(warehouse.getId()));
-            final URI uri = page.getPageUri(builder);
             final WarehouseUsers result = restTemplate.getForObject(uri, WarehouseUsers.class);
             return result != null ? result : new PageableList<WarehouseUser>();
         } catch (GoodDataException | RestClientException e) {
@@ -185,6 +285,10 @@ public class WarehouseService extends AbstractService {
         }
     }
 
+    private static UriComponentsBuilder getWarehouseUsersUriBuilder(final Warehouse warehouse) {
+        return UriComponentsBuilder.fromUri(WarehouseUsers.TEMPLATE.expand(warehouse.getId()));
+    }
+
     /**
      * Add given user to given warehouse.
      *
@@ -216,6 +320,11 @@ public class WarehouseService extends AbstractService {
                 return HttpStatus.CREATED.equals(response.getStatusCode());
             }
 
+            @Override
+            public boolean isStatusOnly() {
+                return true;
+            }
+
             @Override
             public void handlePollResult(WarehouseTask pollResult) {
                 try {
@@ -2,6 +2,8 @@ package com.gooddata;
 
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
@@ -15,8 +17,13 @@ import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
 
 public class AbstractServiceTest {
 
@@ -25,14 +32,21 @@ public class AbstractServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private ClientHttpResponse response;
+
     @BeforeMethod
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         service = new AbstractService(restTemplate) {};
-        final ClientHttpResponse response = mock(ClientHttpResponse.class);
+        response = mock(ClientHttpResponse.class);
         when(response.getStatusCode()).thenReturn(HttpStatus.OK);
         when(restTemplate.execute(anyString(), any(HttpMethod.class), any(RequestCallback.class), any(ResponseExtractor.class)))
-                .thenReturn(response);
+                .thenAnswer(new Answer<Object>() {
+                    @Override
+                    public Object answer(final InvocationOnMock invocation) throws Throwable {
+                        return ((ResponseExtractor<?>) invocation.getArguments()[3]).extractData(response);
+                    }
+                });
     }
 
     @Test
@@ -49,4 +63,79 @@ public class AbstractServiceTest {
         PollHandler<?, ?> handler = mock(PollHandler.class);
         service.poll(handler, 5, TimeUnit.SECONDS);
     }
+
+    @Test(expectedExceptions = GoodDataException.class, expectedExceptionsMessageRegExp = ".*timeout.*")
+    public void pollShouldUsePollingPolicy() throws Exception {
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setPollingPolicy(PollingPolicy.fixed(10));
+        final AbstractService fastService = new AbstractService(restTemplate, new PollScheduler(settings)) {};
+
+        PollHandler<?, ?> handler = mock(PollHandler.class);
+        fastService.poll(handler, 100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void pollShouldKeepInterruptedFlag() throws Exception {
+        PollHandler<?, ?> handler = mock(PollHandler.class);
+        Thread.currentThread().interrupt();
+        try {
+            service.poll(handler, 5, TimeUnit.SECONDS);
+            fail("Exception should be thrown");
+        } catch (GoodDataException e) {
+            assertThat(Thread.interrupted(), is(true));
+        }
+    }
+
+    @Test
+    public void pollOnceShouldNotReadBodyOfStatusOnlyHandler() throws Exception {
+        final PollHandler<Void, Void> handler = mockFinishedHandler(true);
+
+        service.pollOnce(handler);
+
+        verify(response, never()).getBody();
+        verify(handler).handlePollResult(null);
+    }
+
+    @Test
+    public void pollOnceShouldBufferBodyOfOtherHandlers() throws Exception {
+        final PollHandler<Void, Void> handler = mockFinishedHandler(false);
+
+        service.pollOnce(handler);
+
+        verify(response).getBody();
+        verify(handler).handlePollResult(null);
+    }
+
+    @Test
+    public void handlerShouldBeStatusOnlyUnlessIsFinishedOverridden() throws Exception {
+        assertThat(new Handler().isStatusOnly(), is(true));
+        assertThat(new Handler() {
+            @Override
+            public boolean isFinished(final ClientHttpResponse response) {
+                return true;
+            }
+        }.isStatusOnly(), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PollHandler<Void, Void> mockFinishedHandler(final boolean statusOnly) throws Exception {
+        final PollHandler<Void, Void> handler = mock(PollHandler.class);
+        when(handler.getPollingUri()).thenReturn("/uri");
+        when(handler.getPollClass()).thenReturn(Void.class);
+        when(handler.isStatusOnly()).thenReturn(statusOnly);
+        when(handler.isFinished(any(ClientHttpResponse.class))).thenReturn(true);
+        return handler;
+    }
+
+    private static class Handler extends SimplePollHandler<Void> {
+
+        private Handler() {
+            super("/uri", Void.class);
+        }
+
+        @Override
+        public void handlePollException(final GoodDataRestException e) {
+            throw new GoodDataException("failed", e);
+        }
+    }
 }
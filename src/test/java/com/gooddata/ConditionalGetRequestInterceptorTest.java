@@ -0,0 +1,109 @@
+package com.gooddata;
+
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.FileCopyUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConditionalGetRequestInterceptorTest {
+
+    private static final String OBJ_URI = "http://localhost/gdc/md/PROJECT_ID/obj/1";
+    private static final byte[] BODY = "{\"obj\":{}}".getBytes();
+
+    private ConditionalGetRequestInterceptor interceptor;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        interceptor = new ConditionalGetRequestInterceptor(10);
+        execution = mock(ClientHttpRequestExecution.class);
+    }
+
+    @Test
+    public void shouldServeStoredResponseWhenNotModified() throws Exception {
+        final ClientHttpResponse ok = response(HttpStatus.OK, "\"v1\"");
+        final ClientHttpResponse notModified = response(HttpStatus.NOT_MODIFIED, null);
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(ok, notModified);
+
+        assertThat(read(interceptor.intercept(request(HttpMethod.GET, OBJ_URI), new byte[0], execution)), is(BODY));
+        final ClientHttpResponse revalidated = interceptor.intercept(request(HttpMethod.GET, OBJ_URI), new byte[0], execution);
+
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(execution, times(2)).execute(requests.capture(), any(byte[].class));
+        assertThat(requests.getAllValues().get(0).getHeaders().getIfNoneMatch(), is(empty()));
+        assertThat(requests.getAllValues().get(1).getHeaders().getIfNoneMatch(), contains("\"v1\""));
+        assertThat(revalidated.getStatusCode(), is(HttpStatus.OK));
+        assertThat(revalidated.getHeaders().getETag(), is("\"v1\""));
+        assertThat(read(revalidated), is(BODY));
+        verify(notModified).close();
+    }
+
+    @Test
+    public void shouldDropStoredResponseOnUpdate() throws Exception {
+        final ClientHttpResponse ok = response(HttpStatus.OK, "\"v1\"");
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(ok);
+
+        interceptor.intercept(request(HttpMethod.GET, OBJ_URI), new byte[0], execution);
+        interceptor.intercept(request(HttpMethod.PUT, OBJ_URI), new byte[0], execution);
+        interceptor.intercept(request(HttpMethod.GET, OBJ_URI), new byte[0], execution);
+
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(execution, times(3)).execute(requests.capture(), any(byte[].class));
+        assertThat(requests.getAllValues().get(2).getHeaders().getIfNoneMatch(), is(empty()));
+    }
+
+    @Test
+    public void shouldPassOtherResources() throws Exception {
+        final HttpRequest request = request(HttpMethod.GET, "http://localhost/gdc/md/PROJECT_ID/query/attributes");
+        final ClientHttpResponse response = response(HttpStatus.OK, "\"v1\"");
+        when(execution.execute(request, new byte[0])).thenReturn(response);
+
+        assertThat(interceptor.intercept(request, new byte[0], execution), is(sameInstance(response)));
+        verify(execution).execute(eq(request), any(byte[].class));
+    }
+
+    private static HttpRequest request(final HttpMethod method, final String uri) {
+        final HttpRequest request = mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create(uri));
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        return request;
+    }
+
+    private static ClientHttpResponse response(final HttpStatus status, final String etag) throws Exception {
+        final ClientHttpResponse response = mock(ClientHttpResponse.class);
+        final HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(BODY));
+        return response;
+    }
+
+    private static byte[] read(final ClientHttpResponse response) throws Exception {
+        return FileCopyUtils.copyToByteArray(response.getBody());
+    }
+}
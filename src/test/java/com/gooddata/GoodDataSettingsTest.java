@@ -1,9 +1,14 @@
 package com.gooddata;
 
+import com.gooddata.dataload.processes.ProcessService;
+import com.gooddata.report.ReportService;
+import org.springframework.web.client.RestTemplate;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class GoodDataSettingsTest {
@@ -21,6 +26,13 @@ public class GoodDataSettingsTest {
         assertTrue(settings.getConnectionTimeout() >= 0);
         assertTrue(settings.getConnectionRequestTimeout() >= 0);
         assertTrue(settings.getSocketTimeout() >= 0);
+        assertTrue(settings.getPollingThreads() > 0);
+        assertEquals(PollingPolicy.DEFAULT, settings.getPollingPolicy());
+        assertNull(settings.getAsyncExecutor());
+        assertEquals(0, settings.getMetadataCacheSize());
+        assertTrue(settings.getMetadataCacheTtl() > 0);
+        assertEquals(0, settings.getConditionalGetCacheSize());
+        assertTrue(settings.getUploadThreads() > 0);
     }
 
     @Test
@@ -34,6 +46,24 @@ public class GoodDataSettingsTest {
         assertEquals(71000, settings.getSocketTimeout());
     }
 
+    @Test
+    public void testPollingPolicyOverride() throws Exception {
+        final PollingPolicy fast = PollingPolicy.fixed(100);
+        settings.setPollingPolicy(ReportService.class, fast);
+
+        assertEquals(fast, settings.getPollingPolicy(ReportService.class));
+        assertEquals(fast, settings.getPollingPolicy(new ReportService(mock(RestTemplate.class)) {}.getClass()));
+        assertEquals(PollingPolicy.DEFAULT, settings.getPollingPolicy(ProcessService.class));
+
+        settings.setPollingPolicy(ReportService.class, null);
+        assertEquals(PollingPolicy.DEFAULT, settings.getPollingPolicy(ReportService.class));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void setNullPollingPolicyFails() throws Exception {
+        settings.setPollingPolicy(null);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void setNegativeConnectionTimeoutFails() throws Exception {
         settings.setConnectionTimeout(-3);
@@ -0,0 +1,301 @@
+package com.gooddata;
+
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PollSchedulerTest {
+
+    private static final String URI = "/gdc/task";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ClientHttpResponse response;
+    private PollScheduler scheduler;
+    private AbstractService service;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        scheduler = new PollScheduler(2);
+        service = new AbstractService(restTemplate, scheduler) {};
+        response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(restTemplate.execute(anyString(), any(HttpMethod.class), any(RequestCallback.class),
+                Matchers.<ResponseExtractor<Object>>any()))
+                .thenAnswer(new Answer<Object>() {
+                    @Override
+                    public Object answer(final InvocationOnMock invocation) throws Throwable {
+                        return ((ResponseExtractor<?>) invocation.getArguments()[3]).extractData(response);
+                    }
+                });
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        scheduler.shutdown();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectZeroThreads() throws Exception {
+        new PollScheduler(0);
+    }
+
+    @Test
+    public void shouldCompleteAsyncResult() throws Exception {
+        final AsyncResult<String> result = new PollResult<>(service, new Handler(false)).pollAsync();
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is("done"));
+        assertThat(result.isDone(), is(true));
+    }
+
+    @Test
+    public void shouldReturnSameAsyncResult() throws Exception {
+        final PollResult<String> pollResult = new PollResult<>(service, new Handler(false));
+
+        assertThat(pollResult.pollAsync() == pollResult.pollAsync(), is(true));
+        assertThat(pollResult.get(5, TimeUnit.SECONDS), is("done"));
+    }
+
+    @Test
+    public void shouldNotifyCallback() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> value = new AtomicReference<>();
+
+        new PollResult<>(service, new Handler(false)).pollAsync().addCallback(new ResultCallback<String>() {
+            @Override
+            public void onSuccess(final String result) {
+                value.set(result);
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(final GoodDataException e) {
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(value.get(), is("done"));
+    }
+
+    @Test
+    public void shouldFailAsyncResult() throws Exception {
+        final AsyncResult<String> result = new PollResult<>(service, new Handler(true)).pollAsync();
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(GoodDataException.class)));
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test(expectedExceptions = GoodDataException.class, expectedExceptionsMessageRegExp = "failed")
+    public void shouldRethrowFailureFromGet() throws Exception {
+        final PollResult<String> pollResult = new PollResult<>(service, new Handler(true));
+        pollResult.pollAsync();
+        pollResult.get();
+    }
+
+    @Test
+    public void shouldCancelAsyncResult() throws Exception {
+        when(response.getStatusCode()).thenReturn(HttpStatus.ACCEPTED);
+        final Handler handler = new Handler(false);
+        final PollResult<String> pollResult = new PollResult<>(service, handler);
+        final AsyncResult<String> result = pollResult.pollAsync();
+
+        assertThat(pollResult.cancel(), is(true));
+        assertThat(pollResult.cancel(), is(false));
+        assertThat(result.isCancelled(), is(true));
+        assertThat(result.isDone(), is(true));
+        assertThat(pollResult.isCancelled(), is(true));
+        assertThat(handler.cancelled, is(true));
+    }
+
+    @Test(expectedExceptions = CancellationException.class)
+    public void shouldThrowCancellationFromAsyncResult() throws Exception {
+        when(response.getStatusCode()).thenReturn(HttpStatus.ACCEPTED);
+        final AsyncResult<String> result = new PollResult<>(service, new Handler(false)).pollAsync();
+        result.cancel(true);
+        result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test(expectedExceptions = GoodDataException.class, expectedExceptionsMessageRegExp = ".*cancelled")
+    public void shouldFailGetOfCancelledResult() throws Exception {
+        when(response.getStatusCode()).thenReturn(HttpStatus.ACCEPTED);
+        final PollResult<String> pollResult = new PollResult<>(service, new Handler(false));
+        pollResult.pollAsync();
+        pollResult.cancel();
+        pollResult.get();
+    }
+
+    @Test
+    public void shouldCancelBeforePolling() throws Exception {
+        final Handler handler = new Handler(false);
+        final PollResult<String> pollResult = new PollResult<>(service, handler);
+
+        assertThat(pollResult.cancel(), is(true));
+        assertThat(pollResult.isDone(), is(true));
+        assertThat(pollResult.pollAsync().isCancelled(), is(true));
+        assertThat(handler.cancelled, is(true));
+    }
+
+    @Test
+    public void shouldNotCancelFinishedResult() throws Exception {
+        final PollResult<String> pollResult = new PollResult<>(service, new Handler(false));
+
+        assertThat(pollResult.get(), is("done"));
+        assertThat(pollResult.cancel(), is(false));
+        assertThat(pollResult.isCancelled(), is(false));
+    }
+
+    @Test
+    public void shouldExecuteAndPoll() throws Exception {
+        final AsyncResult<String> result = scheduler.execute(new Initiator(new Handler(false)));
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is("done"));
+    }
+
+    @Test
+    public void shouldFailWhenInitiatorFails() throws Exception {
+        final AsyncResult<String> result = scheduler.execute(new Callable<FutureResult<String>>() {
+            @Override
+            public FutureResult<String> call() {
+                throw new IllegalStateException("failed");
+            }
+        });
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(GoodDataException.class)));
+            assertThat(e.getCause().getCause(), is(instanceOf(IllegalStateException.class)));
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test
+    public void shouldNotStartCancelledTask() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setAsyncExecutor(executor);
+        final PollScheduler scheduler = new PollScheduler(settings);
+        final Handler handler = new Handler(false);
+
+        final AsyncResult<String> result = scheduler.execute(new Initiator(handler));
+        assertThat(result.cancel(false), is(true));
+        executor.runAll();
+
+        assertThat(result.isCancelled(), is(true));
+        assertThat(handler.cancelled, is(false));
+    }
+
+    @Test
+    public void shouldUseConfiguredAsyncExecutor() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setAsyncExecutor(executor);
+        final PollScheduler scheduler = new PollScheduler(settings);
+        try {
+            final AsyncResult<String> result = new AbstractService(restTemplate, scheduler) {}
+                    .executeAsync(new Initiator(new Handler(false)));
+            assertThat(result.isDone(), is(false));
+
+            executor.runAll();
+            assertThat(result.get(5, TimeUnit.SECONDS), is("done"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private class Initiator implements Callable<FutureResult<String>> {
+
+        private final Handler handler;
+
+        private Initiator(final Handler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public FutureResult<String> call() {
+            return new PollResult<>(service, handler);
+        }
+    }
+
+    private static class ManualExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+
+    private static class Handler extends AbstractPollHandler<Void, String> {
+
+        private final boolean fail;
+        private volatile boolean cancelled;
+
+        private Handler(final boolean fail) {
+            super(URI, Void.class, String.class);
+            this.fail = fail;
+        }
+
+        @Override
+        public void handlePollResult(final Void pollResult) {
+            if (fail) {
+                throw new GoodDataException("failed");
+            }
+            setResult("done");
+        }
+
+        @Override
+        public void handlePollException(final GoodDataRestException e) {
+            throw new GoodDataException("failed", e);
+        }
+
+        @Override
+        protected void onCancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gooddata;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class PollingPolicyTest {
+
+    @Test
+    public void testDefault() throws Exception {
+        assertThat(PollingPolicy.DEFAULT.getDelay(1), is(5000L));
+        assertThat(PollingPolicy.DEFAULT.getDelay(100), is(5000L));
+    }
+
+    @Test
+    public void testExponential() throws Exception {
+        final PollingPolicy policy = PollingPolicy.exponential(1, 30, TimeUnit.SECONDS);
+        assertThat(policy.getDelay(1), is(1000L));
+        assertThat(policy.getDelay(2), is(2000L));
+        assertThat(policy.getDelay(10), is(30000L));
+    }
+
+    @Test
+    public void testGrowth() throws Exception {
+        final PollingPolicy policy = new PollingPolicy(100, 2, 1000, 0);
+        assertThat(policy.getDelay(1), is(100L));
+        assertThat(policy.getDelay(2), is(200L));
+        assertThat(policy.getDelay(4), is(800L));
+        assertThat(policy.getDelay(5), is(1000L));
+        assertThat(policy.getDelay(Integer.MAX_VALUE), is(1000L));
+    }
+
+    @Test
+    public void testJitter() throws Exception {
+        final PollingPolicy policy = new PollingPolicy(1000, 1, 1000, 0.5);
+        for (int i = 1; i < 100; i++) {
+            assertThat(policy.getDelay(i), is(allOf(greaterThanOrEqualTo(500L), lessThanOrEqualTo(1500L))));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMultiplier() throws Exception {
+        new PollingPolicy(100, 0.5, 1000, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxDelay() throws Exception {
+        new PollingPolicy(100, 2, 10, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidJitter() throws Exception {
+        new PollingPolicy(100, 2, 1000, 1.5);
+    }
+}
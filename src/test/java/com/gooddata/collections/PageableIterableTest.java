@@ -0,0 +1,191 @@
+package com.gooddata.collections;
+
+import com.gooddata.GoodDataException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class PageableIterableTest {
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldIterateAllPages() throws Exception {
+        final Loader loader = new Loader(Arrays.asList(1, 2), Collections.<Integer>emptyList(), Arrays.asList(3));
+
+        assertThat(toList(new PageableIterable<>(loader, null, executor)), contains(1, 2, 3));
+        assertThat(loader.loads.get(), is(3));
+    }
+
+    @Test
+    public void shouldIterateWithoutPrefetch() throws Exception {
+        final Loader loader = new Loader(Arrays.asList(1, 2), Arrays.asList(3));
+
+        assertThat(toList(new PageableIterable<>(loader, null, null)), contains(1, 2, 3));
+    }
+
+    @Test
+    public void shouldIterateEmpty() throws Exception {
+        final Loader loader = new Loader(Collections.<Integer>emptyList());
+
+        assertThat(toList(new PageableIterable<>(loader, null, executor)), is(empty()));
+    }
+
+    @Test
+    public void shouldRetainPages() throws Exception {
+        final Loader loader = new Loader(Arrays.asList(1, 2), Arrays.asList(3));
+        final PageableIterable<Integer> iterable = new PageableIterable<>(loader, null, executor);
+
+        assertThat(toList(iterable), contains(1, 2, 3));
+        assertThat(toList(iterable), contains(1, 2, 3));
+        assertThat(loader.loads.get(), is(2));
+    }
+
+    @Test
+    public void shouldReloadPagesWithBoundedMemory() throws Exception {
+        final Loader loader = new Loader(Arrays.asList(1, 2), Arrays.asList(3));
+        final PageableIterable<Integer> iterable = new PageableIterable<>(loader, null, executor).withBoundedMemory();
+
+        assertThat(toList(iterable), contains(1, 2, 3));
+        assertThat(toList(iterable), contains(1, 2, 3));
+        assertThat(loader.loads.get(), is(4));
+    }
+
+    @Test(expectedExceptions = GoodDataException.class, expectedExceptionsMessageRegExp = "failed")
+    public void shouldPropagatePrefetchFailure() throws Exception {
+        final PageLoader<Integer> loader = new PageLoader<Integer>() {
+            @Override
+            public PageableList<Integer> load(final Page page) {
+                if (page != null) {
+                    throw new GoodDataException("failed");
+                }
+                return new PageableList<>(Arrays.asList(1), new Paging("1", "/next"));
+            }
+        };
+
+        toList(new PageableIterable<>(loader, null, executor));
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void shouldFailAfterLastItem() throws Exception {
+        final Iterator<Integer> iterator = new PageableIterable<>(new Loader(Arrays.asList(1)), null, executor).iterator();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void shouldIterateInParallel() throws Exception {
+        final OffsetLoader loader = new OffsetLoader(7);
+        final PageableIterable<Integer> iterable = new PageableIterable<>(loader, null, executor).withParallelism(3, 2);
+
+        assertThat(toList(iterable), contains(0, 1, 2, 3, 4, 5, 6));
+        assertThat(loader.loads.get(), is(lessThanOrEqualTo(6)));
+        assertThat(toList(iterable), contains(0, 1, 2, 3, 4, 5, 6));
+        assertThat(loader.loads.get(), is(lessThanOrEqualTo(6)));
+    }
+
+    @Test
+    public void shouldIterateInParallelFromOffset() throws Exception {
+        final OffsetLoader loader = new OffsetLoader(6);
+        final Executor direct = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        };
+
+        assertThat(toList(new PageableIterable<>(loader, new PageRequest(1, 2), direct).withParallelism(2, 2)),
+                contains(1, 2, 3, 4, 5));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectParallelismWithUriPage() throws Exception {
+        new PageableIterable<>(new OffsetLoader(1), new UriPage("/uri"), executor).withParallelism(2, 2);
+    }
+
+    private static <E> List<E> toList(final Iterable<E> iterable) {
+        final List<E> result = new ArrayList<>();
+        for (E item : iterable) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Serves consecutive numbers up to the given size by offset and limit.
+     */
+    private static class OffsetLoader implements PageLoader<Integer> {
+
+        private final int size;
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private OffsetLoader(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public PageableList<Integer> load(final Page page) {
+            loads.incrementAndGet();
+            final PageRequest request = (PageRequest) page;
+            final int offset = Integer.parseInt(request.getOffset());
+            final List<Integer> items = new ArrayList<>();
+            for (int i = offset; i < Math.min(size, offset + request.getLimit()); i++) {
+                items.add(i);
+            }
+            final int next = offset + request.getLimit();
+            return new PageableList<>(items, next < size ? new Paging(String.valueOf(offset), "/next") : null);
+        }
+    }
+
+    /**
+     * Serves the given pages, the page URI is the page index.
+     */
+    private static class Loader implements PageLoader<Integer> {
+
+        private final List<List<Integer>> pages;
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @SafeVarargs
+        private Loader(final List<Integer>... pages) {
+            this.pages = new ArrayList<>();
+            for (List<Integer> page : pages) {
+                this.pages.add(page);
+            }
+        }
+
+        @Override
+        public PageableList<Integer> load(final Page page) {
+            loads.incrementAndGet();
+            final int index = page == null ? 0 : Integer.parseInt(page.getPageUri(null).toString());
+            final Paging paging = index + 1 < pages.size() ? new Paging(String.valueOf(index), String.valueOf(index + 1)) : null;
+            return new PageableList<>(pages.get(index), paging);
+        }
+    }
+}
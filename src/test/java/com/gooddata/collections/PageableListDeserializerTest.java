@@ -0,0 +1,75 @@
+package com.gooddata.collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PageableListDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void shouldDeserializeFieldsInAnyOrder() throws Exception {
+        final Numbers numbers = MAPPER.readValue("{\"links\":{\"self\":\"/self\"},\"unknown\":{\"a\":[1,{}]},"
+                + "\"items\":[1,2,3],\"paging\":{\"offset\":\"3\",\"next\":\"/next\"}}", Numbers.class);
+
+        assertThat(numbers, contains(1, 2, 3));
+        assertThat(numbers.getLinks(), hasEntry("self", "/self"));
+        assertThat(numbers.getPaging(), is(notNullValue()));
+        assertThat(numbers.getPaging().getOffset(), is("3"));
+        assertThat(numbers.getNextPage().getPageUri(null).toString(), is("/next"));
+    }
+
+    @Test
+    public void shouldDeserializeMissingFields() throws Exception {
+        final Numbers numbers = MAPPER.readValue("{}", Numbers.class);
+
+        assertThat(numbers, is(empty()));
+        assertThat(numbers.getPaging(), is(nullValue()));
+        assertThat(numbers.getLinks(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldDeserializeNullFields() throws Exception {
+        final Numbers numbers = MAPPER.readValue("{\"items\":null,\"paging\":null,\"links\":null}", Numbers.class);
+
+        assertThat(numbers, is(empty()));
+        assertThat(numbers.getPaging(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldDeserializeNull() throws Exception {
+        assertThat(MAPPER.readValue("null", Numbers.class), is(nullValue()));
+    }
+
+    @JsonDeserialize(using = NumbersDeserializer.class)
+    static class Numbers extends PageableList<Integer> {
+
+        Numbers(final List<Integer> items, final Paging paging, final Map<String, String> links) {
+            super(items, paging, links);
+        }
+    }
+
+    static class NumbersDeserializer extends PageableListDeserializer<Numbers, Integer> {
+
+        NumbersDeserializer() {
+            super(Integer.class);
+        }
+
+        @Override
+        protected Numbers createList(final List<Integer> items, final Paging paging, final Map<String, String> links) {
+            return new Numbers(items, paging, links);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gooddata.dataload.processes;
 
 import com.gooddata.AbstractGoodDataIT;
 import com.gooddata.FutureResult;
+import com.gooddata.ItemCallback;
 import com.gooddata.collections.PageableList;
 import com.gooddata.project.Project;
 import com.gooddata.util.ResourceUtils;
@@ -11,7 +12,9 @@ import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static com.gooddata.util.ResourceUtils.readFromResource;
 import static net.jadler.Jadler.onRequest;
@@ -101,6 +104,27 @@ public class ProcessServiceIT extends AbstractGoodDataIT {
         assertThat(processes, hasSize(1));
     }
 
+
+    @Test
+    public void shouldStreamProcesses() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(PROCESSES_PATH)
+            .respond()
+                .withBody(readFromResource("/dataload/processes/processes.json"))
+                .withStatus(200);
+
+        final List<DataloadProcess> processes = new ArrayList<>();
+        gd.getProcessService().forEachProcess(project, new ItemCallback<DataloadProcess>() {
+            @Override
+            public void onItem(final DataloadProcess process) {
+                processes.add(process);
+            }
+        });
+        assertThat(processes, hasSize(1));
+        assertThat(processes.get(0).getName(), is("testProcess"));
+    }
+
     @Test
     public void shouldGetProcess() throws Exception {
         onRequest()
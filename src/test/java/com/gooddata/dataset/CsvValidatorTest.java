@@ -0,0 +1,135 @@
+package com.gooddata.dataset;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.fail;
+
+public class CsvValidatorTest {
+
+    private final DatasetManifest manifest = new DatasetManifest("dataset.test", "test.csv", asList(
+            new DatasetManifest.Part("FULL", "id", asList("label.id"), true, null),
+            new DatasetManifest.Part("FULL", "name", asList("label.name"), null, null),
+            new DatasetManifest.Part("FULL", "date", asList("date.test"), null,
+                    Collections.singletonMap("date", "yyyy-MM-dd"))
+    ));
+
+    @Test
+    public void shouldAcceptValidCsv() throws Exception {
+        final List<CsvValidationError> errors = new CsvValidator(manifest, 10)
+                .validate(csv("\uFEFFname,id,date\r\n\"a, \"\"b\"\"\",1,2016-01-31\r\n\"multi\nline\",2,\r\n\r\n"));
+
+        assertThat(errors, is(empty()));
+    }
+
+    @Test
+    public void shouldReportHeaderErrors() throws Exception {
+        final List<CsvValidationError> errors = new CsvValidator(manifest, 10)
+                .validate(csv("id,name,unknown\n1,a,b\n"));
+
+        assertThat(errors, hasSize(2));
+        assertThat(errors.get(0).getLine(), is(1L));
+        assertThat(errors.get(0).getColumn(), is("date"));
+        assertThat(errors.get(1).getColumn(), is("unknown"));
+    }
+
+    @Test
+    public void shouldReportRecordErrorsWithLines() throws Exception {
+        final List<CsvValidationError> errors = new CsvValidator(manifest, 10)
+                .validate(csv("id,name,date\n1,\"two\nlines\",2016-13-01\n,b,\n3,c\n4,\"d\"x,\n5,\"open"));
+
+        assertThat(errors, hasSize(5));
+        assertThat(errors.get(0).getLine(), is(2L));
+        assertThat(errors.get(0).getColumn(), is("date"));
+        assertThat(errors.get(1).getLine(), is(4L));
+        assertThat(errors.get(1).getColumn(), is("id"));
+        assertThat(errors.get(2).getLine(), is(5L));
+        assertThat(errors.get(2).getColumn(), is(nullValue()));
+        assertThat(errors.get(3).getLine(), is(6L));
+        assertThat(errors.get(4).getLine(), is(7L));
+    }
+
+    @Test
+    public void shouldReportFirstErrorsOfChunksCheckedConcurrently() throws Exception {
+        final StringBuilder csv = new StringBuilder("id,name,date\n");
+        for (int i = 0; i < CsvValidator.CHUNK_ROWS * 5; i++) {
+            csv.append(i % 1000 == 999 ? "" : i).append(",name,2016-01-01\n");
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<CsvValidationError> errors = new CsvValidator(manifest, 3, executor, 4)
+                    .validate(csv(csv.toString()));
+
+            assertThat(errors, hasSize(3));
+            assertThat(errors.get(0).getLine(), is(1001L));
+            assertThat(errors.get(1).getLine(), is(2001L));
+            assertThat(errors.get(2).getLine(), is(3001L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    @Test
+    public void shouldValidateOnThreadOfTheExecutor() throws Exception {
+        final StringBuilder csv = new StringBuilder("id,name,date\n");
+        for (int i = 0; i < CsvValidator.CHUNK_ROWS * 5; i++) {
+            csv.append(i == 42 ? "" : i).append(",name,2016-01-01\n");
+        }
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CsvValidator validator = new CsvValidator(manifest, 3, executor, 2);
+        try {
+            final List<CsvValidationError> errors = executor.submit(new Callable<List<CsvValidationError>>() {
+                @Override
+                public List<CsvValidationError> call() throws Exception {
+                    return validator.validate(csv(csv.toString()));
+                }
+            }).get(10, TimeUnit.SECONDS);
+
+            assertThat(errors, hasSize(1));
+            assertThat(errors.get(0).getLine(), is(44L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFailValidatingStream() throws Exception {
+        final InputStream stream = new CsvValidator(manifest, 10).validating(csv("id,name,date\n,a,\n"));
+        try {
+            while (stream.read() >= 0) {
+                // consume
+            }
+            fail("Exception should be thrown");
+        } catch (CsvValidationException e) {
+            assertThat(e.getErrors(), hasSize(1));
+            assertThat(e.getErrors().get(0).getLine(), is(2L));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectInvalidDateFormat() throws Exception {
+        new CsvValidator(new DatasetManifest("dataset.test", "test.csv", asList(
+                new DatasetManifest.Part("FULL", "date", asList("date.test"), null,
+                        Collections.singletonMap("date", "yyyy-bb-dd")))), 10);
+    }
+
+    private static InputStream csv(final String csv) {
+        return new ByteArrayInputStream(csv.getBytes(Charset.forName("UTF-8")));
+    }
+}
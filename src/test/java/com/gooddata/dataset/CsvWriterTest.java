@@ -0,0 +1,90 @@
+package com.gooddata.dataset;
+
+import org.joda.time.LocalDate;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class CsvWriterTest {
+
+    private StringWriter output;
+    private CsvWriter writer;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        output = new StringWriter();
+        writer = new CsvWriter(output, manifest("id", "name"));
+    }
+
+    @Test
+    public void shouldWriteHeaderAndRows() throws Exception {
+        writer.writeRow(1, "plain");
+        writer.writeRow(2, null);
+        writer.flush();
+
+        assertThat(writer.getColumns(), contains("id", "name"));
+        assertThat(writer.getRows(), is(2L));
+        assertThat(output.toString(), is("id,name\r\n1,plain\r\n2,\r\n"));
+    }
+
+    @Test
+    public void shouldQuoteValues() throws Exception {
+        writer.writeRow("a,b", "say \"hi\"\n");
+        writer.flush();
+
+        assertThat(output.toString(), is("id,name\r\n\"a,b\",\"say \"\"hi\"\"\n\"\r\n"));
+    }
+
+    @Test
+    public void shouldWriteRowByColumnNames() throws Exception {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("name", "value");
+        writer.writeRow(row);
+        writer.flush();
+
+        assertThat(output.toString(), is("id,name\r\n,value\r\n"));
+    }
+
+    @Test
+    public void shouldFormatDatesByConstraint() throws Exception {
+        final DatasetManifest manifest = new DatasetManifest("dataset.test", "test.csv", asList(
+                new DatasetManifest.Part("FULL", "date", asList("date"), null,
+                        Collections.singletonMap("date", "dd/MM/yyyy")),
+                new DatasetManifest.Part("FULL", "name", asList("label.name"), null, null)));
+        output = new StringWriter();
+        writer = new CsvWriter(output, manifest);
+        writer.writeRow(new LocalDate(2016, 3, 1), new LocalDate(2016, 3, 1));
+        writer.writeRow(new LocalDate(2016, 3, 2).toDate(), "plain");
+        writer.flush();
+
+        assertThat(output.toString(), is("date,name\r\n01/03/2016,2016-03-01\r\n02/03/2016,plain\r\n"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectWrongNumberOfValues() throws Exception {
+        writer.writeRow(1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectManifestWithoutParts() throws Exception {
+        new CsvWriter(output, new DatasetManifest("dataset.empty", "file.csv",
+                Collections.<DatasetManifest.Part>emptyList()));
+    }
+
+    static DatasetManifest manifest(final String... columns) {
+        final DatasetManifest.Part[] parts = new DatasetManifest.Part[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            parts[i] = new DatasetManifest.Part("FULL", columns[i], asList("label." + columns[i]), null, null);
+        }
+        return new DatasetManifest("dataset.test", "test.csv", asList(parts));
+    }
+}
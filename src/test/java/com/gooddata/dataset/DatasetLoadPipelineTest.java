@@ -0,0 +1,118 @@
+package com.gooddata.dataset;
+
+import com.gooddata.AsyncResult;
+import com.gooddata.FutureResult;
+import com.gooddata.GoodDataException;
+import com.gooddata.project.Project;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
+
+public class DatasetLoadPipelineTest {
+
+    private static final String POLLING_URI = "/gdc/md/PROJECT/tasks/task/ID/status";
+
+    @Mock
+    private DatasetService service;
+    @Mock
+    private Project project;
+    @Mock
+    private FutureResult<Void> pull;
+    @Mock
+    private FutureResult<Void> awaitedPull;
+    @Mock
+    private AsyncResult<Void> failedPoll;
+
+    private final Path dirPath = Paths.get("/dir");
+
+    private DatasetLoadPipeline pipeline;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(service.stageDatasets(eq(project), anyCollectionOf(DatasetManifest.class))).thenReturn(dirPath);
+        when(service.pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class))).thenReturn(pull);
+        final AsyncResult<Void> cancelled = new AsyncResult<>();
+        cancelled.cancel(false);
+        when(pull.pollAsync()).thenReturn(cancelled);
+        when(pull.getPollingUri()).thenReturn(POLLING_URI);
+        when(service.awaitPull(POLLING_URI)).thenReturn(awaitedPull);
+        pipeline = new DatasetLoadPipeline(service, project);
+    }
+
+    @Test
+    public void shouldAwaitCancelledPullOnServer() throws Exception {
+        pipeline.load(manifest());
+        pipeline.load(manifest());
+
+        final InOrder order = inOrder(service, awaitedPull);
+        order.verify(service).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+        order.verify(awaitedPull).get();
+        order.verify(service).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+    }
+
+    @Test
+    public void shouldFailWhenCancelledPullCannotBeAwaited() throws Exception {
+        when(awaitedPull.get()).thenThrow(new GoodDataException("Unable to poll"));
+        pipeline.load(manifest());
+
+        try {
+            pipeline.load(manifest());
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            verify(service).deleteQuietly(dirPath);
+        }
+        try {
+            pipeline.load(manifest());
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            verify(service, times(2)).stageDatasets(eq(project), anyCollectionOf(DatasetManifest.class));
+        }
+        verify(service, times(1)).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+    }
+
+    @Test
+    public void shouldNotAwaitPullFailedOnServer() throws Exception {
+        when(failedPoll.get()).thenThrow(new ExecutionException(new DatasetException("ETL pull failed", "dataset")));
+        when(pull.pollAsync()).thenReturn(failedPoll);
+        pipeline.load(manifest());
+        pipeline.load(manifest());
+
+        verify(service, never()).awaitPull(POLLING_URI);
+        verify(service, times(2)).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+    }
+
+    @Test
+    public void shouldAwaitPullWhenPollingFailed() throws Exception {
+        when(failedPoll.get()).thenThrow(new ExecutionException(
+                new DatasetException("Unable to load", "dataset", new GoodDataException("Service Unavailable"))));
+        when(pull.pollAsync()).thenReturn(failedPoll);
+        pipeline.load(manifest());
+        pipeline.load(manifest());
+
+        final InOrder order = inOrder(service, awaitedPull);
+        order.verify(service).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+        order.verify(awaitedPull).get();
+        order.verify(service).pullStaged(eq(project), eq(dirPath), anyCollectionOf(DatasetManifest.class));
+    }
+
+    private static DatasetManifest manifest() {
+        return mock(DatasetManifest.class);
+    }
+}
@@ -1,6 +1,8 @@
 package com.gooddata.dataset;
 
 import com.gooddata.AbstractGoodDataIT;
+import com.gooddata.AsyncResult;
+import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.gdc.TaskStatus;
 import com.gooddata.project.Project;
@@ -15,6 +17,7 @@ import java.util.Collection;
 
 import static com.gooddata.util.ResourceUtils.readFromResource;
 import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -75,6 +78,52 @@ public class DatasetServiceIT extends AbstractGoodDataIT {
         gd.getDatasetService().loadDataset(project, manifest, new ByteArrayInputStream(new byte[]{})).get();
     }
 
+    @Test
+    public void shouldLoadDatasetAsync() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(202)
+                .withBody(readFromResource("/dataset/pullTaskStatusRunning.json"))
+            .thenRespond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+
+        final DatasetManifest manifest = MAPPER.readValue(readFromResource("/dataset/datasetManifest.json"), DatasetManifest.class);
+        final AsyncResult<Void> result = gd.getDatasetService()
+                .loadDataset(project, manifest, new ByteArrayInputStream(new byte[]{})).pollAsync();
+        result.get();
+        assertThat(result.isDone(), is(true));
+    }
+
+    @Test
+    public void shouldLoadDatasetsByPipeline() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(202)
+                .withBody(readFromResource("/dataset/pullTaskStatusRunning.json"))
+            .thenRespond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+
+        final DatasetLoadPipeline pipeline = gd.getDatasetService().createLoadPipeline(project);
+        final DatasetManifest first = MAPPER.readValue(readFromResource("/dataset/datasetManifest.json"), DatasetManifest.class);
+        first.setSource(new ByteArrayInputStream(new byte[]{}));
+        final FutureResult<Void> firstResult = pipeline.load(first);
+        final DatasetManifest second = MAPPER.readValue(readFromResource("/dataset/datasetManifest.json"), DatasetManifest.class);
+        second.setSource(new ByteArrayInputStream(new byte[]{}));
+        final FutureResult<Void> secondResult = pipeline.load(second);
+
+        assertThat(firstResult.isDone(), is(true));
+        pipeline.await();
+        assertThat(secondResult.isDone(), is(true));
+        verifyThatRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/etl/pull2")
+                .havingMethodEqualTo("POST")
+            .receivedTimes(2);
+    }
+
     @Test
     public void shouldLoadDatasets() throws Exception {
         onRequest()
@@ -5,29 +5,62 @@ package com.gooddata.dataset;
 
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
+import com.gooddata.GoodDataSettings;
+import com.gooddata.PollScheduler;
 import com.gooddata.gdc.DataStoreException;
 import com.gooddata.gdc.DataStoreService;
 import com.gooddata.project.Project;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.matches;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
 
 public class DatasetServiceTest {
 
@@ -114,7 +147,8 @@ public class DatasetServiceTest {
 
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testLoadDatasetWithNullDataset() throws Exception {
-        service.loadDataset(project, manifest, null);
+        final InputStream nullStream = null;
+        service.loadDataset(project, manifest, nullStream);
     }
 
     @Test(expectedExceptions = DatasetException.class)
@@ -124,6 +158,246 @@ public class DatasetServiceTest {
         service.loadDataset(project, manifest, stream);
     }
 
+    @Test
+    public void testLoadDatasetsUploadsConcurrently() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        final CyclicBarrier barrier = new CyclicBarrier(3);
+        final List<String> uploaded = Collections.synchronizedList(new ArrayList<String>());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final String path = (String) invocation.getArguments()[0];
+                if (path.endsWith(".csv")) {
+                    barrier.await(10, TimeUnit.SECONDS);
+                }
+                uploaded.add(path.substring(path.lastIndexOf('/') + 1));
+                return null;
+            }
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        when(restTemplate.postForObject(eq(Pull.URI), any(Pull.class), eq(PullTask.class), eq(PROJECT_ID)))
+                .thenThrow(new RestClientException(""));
+        final DatasetService concurrentService = new DatasetService(restTemplate, dataStoreService, scheduler, 3);
+
+        try {
+            concurrentService.loadDatasets(project, manifest("a"), manifest("b"), manifest("c"));
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(uploaded, hasSize(4));
+            assertThat(uploaded.get(3), is("upload_info.json"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetsSkipsRemainingUploadsOnFailure() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        doThrow(DataStoreException.class).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        final DatasetService concurrentService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            concurrentService.loadDatasets(project, manifest("a"), manifest("b"));
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            verify(dataStoreService, times(1)).upload(anyString(), any(InputStream.class));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testLoadDatasetsDeletesUploadedFilesOnFailure() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        doThrow(DataStoreException.class).when(dataStoreService).upload(matches(".*b\\.csv"), any(InputStream.class));
+        final DatasetService concurrentService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            concurrentService.loadDatasets(project, manifest("a"), manifest("b"));
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            verify(dataStoreService).upload(matches(".*a\\.csv"), any(InputStream.class));
+            verify(dataStoreService).delete(matches("/" + PROJECT_ID + "_.*"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetsWhenInterrupted() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        final DatasetService concurrentService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            concurrentService.loadDatasets(project, manifest("a"), manifest("b"));
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(Thread.interrupted(), is(true));
+            verify(dataStoreService, times(1)).upload(anyString(), any(InputStream.class));
+            verify(dataStoreService).delete(anyString());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetStreamsZippedCsv() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        final Map<String, String> entries = new LinkedHashMap<>();
+        final AtomicReference<String> uploadPath = new AtomicReference<>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                uploadPath.set((String) invocation.getArguments()[0]);
+                final ZipInputStream zip = new ZipInputStream((InputStream) invocation.getArguments()[1]);
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.put(entry.getName(), StreamUtils.copyToString(zip, Charset.forName("UTF-8")));
+                }
+                return null;
+            }
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        when(restTemplate.postForObject(eq(Pull.URI), any(Pull.class), eq(PullTask.class), eq(PROJECT_ID)))
+                .thenThrow(new RestClientException(""));
+        final DatasetService streamingService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            streamingService.loadDataset(project, CsvWriterTest.manifest("id", "name"), new CsvProducer() {
+                @Override
+                public void produce(final CsvWriter writer) throws IOException {
+                    for (int i = 0; i < 10000; i++) {
+                        writer.writeRow(i, "name " + i);
+                    }
+                }
+            });
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(uploadPath.get(), endsWith("/upload.zip"));
+            assertThat(entries.keySet(), contains("upload_info.json", "test.csv"));
+            assertThat(entries.get("upload_info.json"), containsString("dataset.test"));
+            assertThat(entries.get("test.csv"), startsWith("id,name\r\n0,name 0\r\n"));
+            assertThat(entries.get("test.csv"), endsWith("9999,name 9999\r\n"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetWhenProducerFails() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final InputStream input = (InputStream) invocation.getArguments()[1];
+                try {
+                    StreamUtils.copy(input, new ByteArrayOutputStream());
+                } catch (IOException e) {
+                    throw new DataStoreException("Unable to upload", e);
+                }
+                return null;
+            }
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        final DatasetService streamingService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            streamingService.loadDataset(project, CsvWriterTest.manifest("id"), new CsvProducer() {
+                @Override
+                public void produce(final CsvWriter writer) throws IOException {
+                    writer.writeRow(1);
+                    throw new IOException("source failed");
+                }
+            });
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(e.getCause().getMessage(), is("source failed"));
+            verify(restTemplate, never()).postForObject(eq(Pull.URI), any(Pull.class), eq(PullTask.class), eq(PROJECT_ID));
+            verify(dataStoreService).delete(matches("/" + PROJECT_ID + "_.*"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetWhenUploadFailsWhileProducing() throws Exception {
+        final PollScheduler scheduler = new PollScheduler(1);
+        final DataStoreException uploadFailure = new DataStoreException("Unable to upload", new IOException("401"));
+        doThrow(uploadFailure).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        final DatasetService streamingService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            streamingService.loadDataset(project, CsvWriterTest.manifest("id"), new CsvProducer() {
+                @Override
+                public void produce(final CsvWriter writer) throws IOException {
+                    for (int i = 0; i < 100000; i++) {
+                        writer.writeRow(i);
+                    }
+                }
+            });
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(e.getCause(), is(sameInstance((Throwable) uploadFailure)));
+            assertThat(uploadFailure.getSuppressed().length, is(1));
+            assertThat(uploadFailure.getSuppressed()[0], is(instanceOf(IOException.class)));
+            verify(restTemplate, never()).postForObject(eq(Pull.URI), any(Pull.class), eq(PullTask.class), eq(PROJECT_ID));
+            verify(dataStoreService).delete(matches("/" + PROJECT_ID + "_.*"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDatasetWithInlineExecutor() throws Exception {
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        final PollScheduler scheduler = new PollScheduler(settings);
+        final AtomicInteger uploaded = new AtomicInteger();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final InputStream input = (InputStream) invocation.getArguments()[1];
+                uploaded.set(StreamUtils.copy(input, new ByteArrayOutputStream()));
+                return null;
+            }
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        when(restTemplate.postForObject(eq(Pull.URI), any(Pull.class), eq(PullTask.class), eq(PROJECT_ID)))
+                .thenThrow(new RestClientException(""));
+        final DatasetService streamingService = new DatasetService(restTemplate, dataStoreService, scheduler, 1);
+
+        try {
+            streamingService.loadDataset(project, CsvWriterTest.manifest("id"), new CsvProducer() {
+                @Override
+                public void produce(final CsvWriter writer) throws IOException {
+                    for (int i = 0; i < 100000; i++) {
+                        writer.writeRow(i);
+                    }
+                }
+            });
+            fail("Exception should be thrown");
+        } catch (DatasetException e) {
+            assertThat(uploaded.get() > 0, is(true));
+            verify(dataStoreService).delete(matches("/" + PROJECT_ID + "_.*"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static DatasetManifest manifest(final String name) {
+        final DatasetManifest manifest = new DatasetManifest("dataset." + name, new ByteArrayInputStream(new byte[0]));
+        manifest.setFile(name + ".csv");
+        return manifest;
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testLoadDatasetByIdWithNullProject() throws Exception {
         service.loadDataset(null, DATASET_ID, stream);
@@ -8,10 +8,21 @@ import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.gooddata.util.ResourceUtils.readFromResource;
 import static net.jadler.Jadler.onRequest;
 import static net.jadler.Jadler.port;
+import static net.jadler.Jadler.verifyThatRequest;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.testng.Assert.fail;
 
 public class DataStoreServiceIT extends AbstractGoodDataIT {
 
@@ -57,4 +68,102 @@ public class DataStoreServiceIT extends AbstractGoodDataIT {
         gd.getDataStoreService().upload("/test", content);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldRetryUploadOfFile() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPathEqualTo("/uploads/retry.csv")
+            .respond()
+                .withStatus(503)
+            .thenRespond()
+                .withStatus(201);
+        final Path file = Files.createTempFile("retry", ".csv");
+        try {
+            Files.write(file, "test".getBytes());
+            final List<Long> progress = new ArrayList<>();
+            final DataStoreService service = gd.getDataStoreService();
+            service.setUploadRetry(2, 0);
+            service.uploadWithRetry("/retry.csv", file, new UploadProgressListener() {
+                @Override
+                public void onProgress(String path, long uploadedBytes, long totalBytes, double bytesPerSecond) {
+                    progress.add(uploadedBytes);
+                }
+            });
+
+            verifyThatRequest().havingMethodEqualTo("PUT").havingPathEqualTo("/uploads/retry.csv").receivedTimes(2);
+            assertThat(progress, contains(4L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+
+    @Test
+    public void shouldNotRetryUploadWhenFileCannotBeRead() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPathEqualTo("/uploads/unreadable.csv")
+            .respond()
+                .withStatus(201);
+        final Path dir = Files.createTempDirectory("unreadable");
+        try {
+            final DataStoreService service = gd.getDataStoreService();
+            service.setUploadRetry(3, 0);
+            service.uploadWithRetry("/unreadable.csv", dir, null);
+            fail("Exception should be thrown");
+        } catch (DataStoreException e) {
+            assertThat(e.getMessage(), startsWith("Unable to read"));
+            verifyThatRequest().havingMethodEqualTo("PUT").havingPathEqualTo("/uploads/unreadable.csv")
+                    .receivedTimes(lessThan(2));
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void shouldResumeUploadOfDirectory() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPathEqualTo("/uploads/dir/a.csv")
+            .respond()
+                .withStatus(201);
+        onRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPathEqualTo("/uploads/dir/b.csv")
+            .respond()
+                .withStatus(403)
+            .thenRespond()
+                .withStatus(201);
+        final Path dir = Files.createTempDirectory("upload");
+        try {
+            Files.write(dir.resolve("a.csv"), "a".getBytes());
+            Files.write(dir.resolve("b.csv"), "bb".getBytes());
+            final DataStoreService service = gd.getDataStoreService();
+            try {
+                service.uploadDirectory("/dir", dir, null);
+                fail("Exception should be thrown");
+            } catch (DataStoreException e) {
+                assertThat(Files.exists(dir.resolve(DataStoreService.JOURNAL_FILE_NAME)), is(true));
+            }
+
+            final List<Long> progress = new ArrayList<>();
+            service.uploadDirectory("/dir", dir, new UploadProgressListener() {
+                @Override
+                public void onProgress(String path, long uploadedBytes, long totalBytes, double bytesPerSecond) {
+                    assertThat(totalBytes, is(3L));
+                    progress.add(uploadedBytes);
+                }
+            });
+
+            verifyThatRequest().havingMethodEqualTo("PUT").havingPathEqualTo("/uploads/dir/a.csv").receivedTimes(1);
+            verifyThatRequest().havingMethodEqualTo("PUT").havingPathEqualTo("/uploads/dir/b.csv").receivedTimes(2);
+            assertThat(progress, contains(1L, 3L));
+            assertThat(Files.exists(dir.resolve(DataStoreService.JOURNAL_FILE_NAME)), is(false));
+        } finally {
+            Files.deleteIfExists(dir.resolve("a.csv"));
+            Files.deleteIfExists(dir.resolve("b.csv"));
+            Files.deleteIfExists(dir.resolve(DataStoreService.JOURNAL_FILE_NAME));
+            Files.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.gooddata.md;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AttributeElementDictionaryTest {
+
+    @DataProvider
+    public Object[][] storage() {
+        return new Object[][]{{false}, {true}};
+    }
+
+    @Test(dataProvider = "storage")
+    public void shouldLookupBothWays(final boolean offHeap) throws Exception {
+        final AttributeElements elements = new ObjectMapper()
+                .readValue(getClass().getResourceAsStream("/md/attributeElements.json"), AttributeElements.class);
+
+        final AttributeElementDictionary dictionary = new AttributeElementDictionary(elements.getElements(), offHeap);
+
+        assertThat(dictionary.size(), is(3));
+        assertThat(dictionary.isOffHeap(), is(offHeap));
+        assertThat(dictionary.getUri("1168"), is("/gdc/md/PROJECT_ID/obj/1333/elements?id=6965"));
+        assertThat(dictionary.getTitle("/gdc/md/PROJECT_ID/obj/1333/elements?id=13716"), is("1169"));
+        assertThat(dictionary.getUri("1170"), is(nullValue()));
+        assertThat(dictionary.getTitle("/gdc/md/PROJECT_ID/obj/1333/elements?id=1"), is(nullValue()));
+        assertThat(dictionary.getTitle("/gdc/md/PROJECT_ID/obj/1/elements?id=6965"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldStoreManyElements() throws Exception {
+        final List<AttributeElement> elements = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            elements.add(element("/elements?id=" + (i * 7), "title ž " + i));
+        }
+
+        final AttributeElementDictionary dictionary = new AttributeElementDictionary(elements, false);
+
+        assertThat(dictionary.size(), is(5000));
+        for (int i = 0; i < 5000; i += 499) {
+            assertThat(dictionary.getUri("title ž " + i), is("/elements?id=" + (i * 7)));
+            assertThat(dictionary.getTitle("/elements?id=" + (i * 7)), is("title ž " + i));
+        }
+    }
+
+
+    @Test(dataProvider = "storage")
+    public void shouldStoreRepeatedTitlesOnce(final boolean offHeap) throws Exception {
+        final List<AttributeElement> elements = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            elements.add(element("/elements?id=" + i, "title " + (i % 100)));
+        }
+
+        final AttributeElementDictionary dictionary = new AttributeElementDictionary(elements, offHeap);
+
+        assertThat(dictionary.size(), is(3000));
+        assertThat(dictionary.getTitleCount(), is(100));
+        for (int i = 0; i < 3000; i++) {
+            assertThat(dictionary.getTitle("/elements?id=" + i), is("title " + (i % 100)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(dictionary.getUri("title " + i), is("/elements?id=" + i));
+        }
+    }
+
+    @Test
+    public void shouldCreateEmpty() throws Exception {
+        final AttributeElementDictionary dictionary =
+                new AttributeElementDictionary(Collections.<AttributeElement>emptyList(), false);
+
+        assertThat(dictionary.size(), is(0));
+        assertThat(dictionary.getUri("title"), is(nullValue()));
+        assertThat(dictionary.getTitle("/elements?id=1"), is(nullValue()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectDifferentPrefixes() throws Exception {
+        new AttributeElementDictionary(asList(element("/a?id=1", "a"), element("/b?id=2", "b")), false);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectNonNumericIds() throws Exception {
+        new AttributeElementDictionary(asList(element("/a?id=x", "a")), false);
+    }
+
+    private static AttributeElement element(final String uri, final String title) {
+        final AttributeElement element = mock(AttributeElement.class);
+        when(element.getUri()).thenReturn(uri);
+        when(element.getTitle()).thenReturn(title);
+        return element;
+    }
+}
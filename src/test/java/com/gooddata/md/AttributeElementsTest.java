@@ -28,6 +28,8 @@ public class AttributeElementsTest {
         final List<AttributeElement> elementsList = elements.getElements();
         assertThat(elementsList, is(notNullValue()));
         assertThat(elementsList, hasSize(3));
+        assertThat(elements.getMeta().getOffset(), is(0));
+        assertThat(elements.getMeta().getRecords(), is(3));
     }
 
 }
\ No newline at end of file
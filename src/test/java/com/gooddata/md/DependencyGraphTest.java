@@ -0,0 +1,65 @@
+package com.gooddata.md;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+public class DependencyGraphTest {
+
+    private DependencyGraph graph;
+    private Entry metricEntry;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        metricEntry = mock(Entry.class);
+        graph = new DependencyGraph();
+        final int fact = graph.addNode("fact", null);
+        final int attribute = graph.addNode("attribute", null);
+        final int metric = graph.addNode("metric", metricEntry);
+        final int report = graph.addNode("report", null);
+        final int dashboard = graph.addNode("dashboard", null);
+        graph.addUsage(fact, metric);
+        graph.addUsage(attribute, report);
+        graph.addUsage(metric, report);
+        graph.addUsage(report, dashboard);
+    }
+
+    @Test
+    public void shouldNumberNodesOnce() throws Exception {
+        assertThat(graph.addNode("metric", null), is(2));
+        assertThat(graph.size(), is(5));
+        assertThat(graph.getUris(), contains("fact", "attribute", "metric", "report", "dashboard"));
+        assertThat(graph.getEntry("metric"), is(metricEntry));
+        assertThat(graph.getEntry("fact"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReturnDirectUsages() throws Exception {
+        assertThat(graph.getUsedBy("metric"), contains("report"));
+        assertThat(graph.getUsing("report"), contains("attribute", "metric"));
+        assertThat(graph.getUsedBy("dashboard"), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnImpact() throws Exception {
+        assertThat(graph.getImpact("fact"), contains("metric", "report", "dashboard"));
+        assertThat(graph.getImpact("attribute", "metric"), containsInAnyOrder("report", "dashboard"));
+    }
+
+    @Test
+    public void shouldReturnDependencies() throws Exception {
+        assertThat(graph.getDependencies("dashboard"), contains("fact", "attribute", "metric", "report"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectUnknownObject() throws Exception {
+        graph.getImpact("unknown");
+    }
+}
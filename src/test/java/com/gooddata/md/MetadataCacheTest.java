@@ -0,0 +1,141 @@
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MetadataCacheTest {
+
+    private static final String URI1 = "/gdc/md/PROJECT1/obj/1";
+    private static final String URI2 = "/gdc/md/PROJECT1/obj/2";
+    private static final String URI3 = "/gdc/md/PROJECT2/obj/1";
+
+    private MetadataCache cache;
+    private Obj obj;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        cache = new MetadataCache(2, 1, TimeUnit.MINUTES);
+        obj = mock(Obj.class);
+    }
+
+    @Test
+    public void shouldCacheObjects() throws Exception {
+        assertThat(cache.get(URI1, Obj.class), is(nullValue()));
+        cache.put(URI1, obj);
+
+        assertThat(cache.get(URI1, Obj.class), is(sameInstance(obj)));
+        assertThat(cache.getStats().getHits(), is(1L));
+        assertThat(cache.getStats().getMisses(), is(1L));
+        assertThat(cache.getStats().getHitRatio(), is(0.5));
+    }
+
+    @Test
+    public void shouldMissObjectOfOtherType() throws Exception {
+        cache.put(URI1, obj);
+
+        assertThat(cache.get(URI1, Attribute.class), is(nullValue()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        cache.put(URI1, obj);
+        cache.put(URI2, obj);
+        cache.get(URI1, Obj.class);
+        cache.put(URI3, obj);
+
+        assertThat(cache.get(URI1, Obj.class), is(sameInstance(obj)));
+        assertThat(cache.get(URI2, Obj.class), is(nullValue()));
+        assertThat(cache.getStats().getEvictions(), is(1L));
+        assertThat(cache.getStats().getSize(), is(2));
+    }
+
+    @Test
+    public void shouldExpireObjects() throws Exception {
+        cache = new MetadataCache(2, 1, TimeUnit.NANOSECONDS);
+        cache.put(URI1, obj);
+        Thread.sleep(1);
+
+        assertThat(cache.get(URI1, Obj.class), is(nullValue()));
+        assertThat(cache.getStats().getSize(), is(0));
+    }
+
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedQueries() throws Exception {
+        final QueryIndex query = mock(QueryIndex.class);
+        cache.putQuery("PROJECT1", "attribute", query, cache.getQueryGeneration());
+        cache.putQuery("PROJECT1", "fact", query, cache.getQueryGeneration());
+        cache.getQuery("PROJECT1", "attribute");
+        cache.putQuery("PROJECT2", "attribute", query, cache.getQueryGeneration());
+
+        assertThat(cache.getQuery("PROJECT1", "attribute"), is(sameInstance(query)));
+        assertThat(cache.getQuery("PROJECT1", "fact"), is(nullValue()));
+        assertThat(cache.getQuery("PROJECT2", "attribute"), is(sameInstance(query)));
+    }
+
+    @Test
+    public void shouldExpireQueries() throws Exception {
+        cache = new MetadataCache(2, 1, TimeUnit.NANOSECONDS);
+        cache.putQuery("PROJECT1", "attribute", mock(QueryIndex.class), cache.getQueryGeneration());
+        Thread.sleep(1);
+
+        assertThat(cache.getQuery("PROJECT1", "attribute"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldDropQueryLoadedBeforeInvalidation() throws Exception {
+        final long generation = cache.getQueryGeneration();
+        cache.invalidate(URI1);
+        cache.putQuery("PROJECT1", "attribute", mock(QueryIndex.class), generation);
+
+        assertThat(cache.getQuery("PROJECT1", "attribute"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldFlushProject() throws Exception {
+        final Project project = mock(Project.class);
+        when(project.getId()).thenReturn("PROJECT1");
+        cache.put(URI2, obj);
+        cache.put(URI3, obj);
+
+        cache.flush(project);
+
+        assertThat(cache.get(URI2, Obj.class), is(nullValue()));
+        assertThat(cache.get(URI3, Obj.class), is(sameInstance(obj)));
+    }
+
+    @Test
+    public void shouldNotStoreWhenDisabled() throws Exception {
+        cache = MetadataCache.disabled();
+        cache.put(URI1, obj);
+
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cache.get(URI1, Obj.class), is(nullValue()));
+    }
+
+    @Test
+    public void shouldCacheIdentifiers() throws Exception {
+        final Attribute attribute = mock(Attribute.class);
+        when(attribute.getIdentifier()).thenReturn("attr.id");
+        cache.put(URI1, attribute);
+        cache.putUri("PROJECT2", "other.id", URI3);
+
+        assertThat(cache.getUri("PROJECT1", "attr.id"), is(URI1));
+        assertThat(cache.getUri("PROJECT2", "other.id"), is(URI3));
+        assertThat(cache.getUri("PROJECT2", "attr.id"), is(nullValue()));
+
+        cache.invalidate(URI1);
+        assertThat(cache.getUri("PROJECT1", "attr.id"), is(nullValue()));
+        assertThat(cache.getUri("PROJECT2", "other.id"), is(URI3));
+    }
+}
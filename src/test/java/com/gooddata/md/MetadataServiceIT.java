@@ -4,6 +4,8 @@
 package com.gooddata.md;
 
 import com.gooddata.AbstractGoodDataIT;
+import com.gooddata.ItemCallback;
+import com.gooddata.collections.PageRequest;
 import com.gooddata.gdc.UriResponse;
 import com.gooddata.md.report.ReportDefinition;
 import com.gooddata.project.Project;
@@ -21,8 +23,10 @@ import java.util.Map;
 
 import static com.gooddata.util.ResourceUtils.readFromResource;
 import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static com.gooddata.util.ResourceUtils.readStringFromResource;
 import static java.util.Arrays.asList;
 import static net.jadler.Jadler.onRequest;
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -272,6 +276,58 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(((Metric) result).getFormat(), is("FORMAT"));
     }
 
+
+    @Test
+    public void shouldGetObjsByUrisInBulk() throws Exception {
+        final String metricUri = "/gdc/md/PROJECT_ID/obj/DF_ID";
+        final String missingUri = "/gdc/md/PROJECT_ID/obj/MISSING";
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/objects/get")
+                .havingBody(jsonEquals("{\"get\":{\"items\":[\"" + missingUri + "\",\"" + metricUri + "\"]}}"))
+            .respond()
+                .withStatus(200)
+                .withBody("{\"objects\":{\"items\":[" + readStringFromResource("/md/metric.json") + "]}}");
+
+        final ObjsResult<Metric> result = gd.getMetadataService()
+                .getObjsByUris(asList(missingUri, metricUri), Metric.class);
+
+        assertThat(result.getObjs(), hasSize(1));
+        assertThat(result.getObj(metricUri).getTitle(), is("Person Name"));
+        assertThat(result.getFailures().keySet(), contains(missingUri));
+        assertThat(result.getFailures().get(missingUri), is(instanceOf(ObjNotFoundException.class)));
+    }
+
+    @Test
+    public void shouldGetObjsByUrisOneByOneWithoutBulkResource() throws Exception {
+        final String metricUri = "/gdc/md/PROJECT_ID/obj/DF_ID";
+        final String missingUri = "/gdc/md/PROJECT_ID/obj/MISSING";
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/objects/get")
+            .respond()
+                .withStatus(404);
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(metricUri)
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/md/metric.json"));
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(missingUri)
+            .respond()
+                .withStatus(404);
+
+        final ObjsResult<Metric> result = gd.getMetadataService()
+                .getObjsByUris(asList(metricUri, missingUri), Metric.class);
+
+        assertThat(result.getObjs(), hasSize(1));
+        assertThat(result.getObjs().get(0).getUri(), is(metricUri));
+        assertThat(result.hasFailures(), is(true));
+        assertThat(result.getFailures().get(missingUri), is(instanceOf(ObjNotFoundException.class)));
+    }
+
     @Test
     public void shouldGetObjUriByRestrictions() throws Exception {
         onRequest()
@@ -326,6 +382,27 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(result, hasSize(2));
     }
 
+
+    @Test
+    public void shouldFindByRestrictionsWithCallback() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/query/attributes")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/md/query.json"));
+
+        final List<String> uris = new ArrayList<>();
+        gd.getMetadataService().find(project, Attribute.class, new ItemCallback<Entry>() {
+            @Override
+            public void onItem(final Entry entry) {
+                uris.add(entry.getLink());
+            }
+        }, Restriction.summary(""));
+
+        assertThat(uris, contains("/gdc/md/PROJ_ID/obj/127", "/gdc/md/PROJ_ID/obj/118"));
+    }
+
     @Test
     public void shouldFindUrisByRestrictions() throws Exception {
         onRequest()
@@ -360,4 +437,37 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(attributeElements, hasSize(3));
         assertThat(attributeElements.get(0).getTitle(), is("1167"));
     }
+
+    @Test
+    public void shouldListAllAttributeElementsByPages() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("filter", "116")
+                .havingParameterEqualTo("offset", "0")
+                .havingParameterEqualTo("limit", "2")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":[{\"uri\":\"/e1\",\"title\":\"1167\"},"
+                        + "{\"uri\":\"/e2\",\"title\":\"1168\"}],\"elementsMeta\":{\"offset\":\"0\",\"records\":\"3\"}}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("filter", "116")
+                .havingParameterEqualTo("offset", "2")
+                .havingParameterEqualTo("limit", "2")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":[{\"uri\":\"/e3\",\"title\":\"1169\"}],"
+                        + "\"elementsMeta\":{\"offset\":\"2\",\"records\":\"3\"}}}");
+
+        final Attribute attribute = readObjectFromResource("/md/attribute.json", Attribute.class);
+        final List<String> titles = new ArrayList<>();
+        for (AttributeElement element : gd.getMetadataService()
+                .listAllAttributeElements(attribute.getDefaultDisplayForm(), "116", new PageRequest(0, 2))) {
+            titles.add(element.getTitle());
+        }
+
+        assertThat(titles, contains("1167", "1168", "1169"));
+    }
 }
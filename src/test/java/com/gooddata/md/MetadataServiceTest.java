@@ -5,31 +5,58 @@ package com.gooddata.md;
 
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
+import com.gooddata.GoodDataSettings;
+import com.gooddata.PollScheduler;
+import com.gooddata.collections.PageRequest;
 import com.gooddata.gdc.UriResponse;
 import com.gooddata.md.report.ReportDefinition;
 import com.gooddata.project.Project;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gooddata.util.ResourceUtils.readObjectFromResource;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -90,6 +117,50 @@ public class MetadataServiceTest {
         assertThat(result, is(notNullValue()));
     }
 
+
+    @Test
+    public void testCreateObjWithoutFetch() throws Exception {
+        final Obj obj = mock(Obj.class);
+        final UriResponse uriResp = mock(UriResponse.class);
+
+        when(restTemplate.postForObject(Obj.URI, obj, UriResponse.class, PROJECT_ID)).thenReturn(uriResp);
+        when(uriResp.getUri()).thenReturn(URI);
+
+        assertThat(service.createObjWithoutFetch(project, obj), is(URI));
+        verify(restTemplate, never()).getForObject(URI, obj.getClass());
+    }
+
+
+    @Test
+    public void testCreateObjs() throws Exception {
+        final Obj metric = mock(Obj.class);
+        final Obj failing = mock(Obj.class);
+        final Obj definition = mock(Obj.class);
+        final UriResponse metricUri = new UriResponse("/gdc/md/PROJECT/obj/1");
+        final UriResponse definitionUri = new UriResponse("/gdc/md/PROJECT/obj/2");
+        when(restTemplate.postForObject(Obj.URI, metric, UriResponse.class, PROJECT_ID)).thenReturn(metricUri);
+        when(restTemplate.postForObject(Obj.URI, failing, UriResponse.class, PROJECT_ID))
+                .thenThrow(new RestClientException(""));
+        when(restTemplate.postForObject(Obj.URI, definition, UriResponse.class, PROJECT_ID)).thenReturn(definitionUri);
+
+        final ObjBatchResult result = service.createObjs(project, new ObjBatch()
+                .add("metric", metric)
+                .add("failing", failing)
+                .add("definition", new ObjFactory() {
+                    @Override
+                    public Obj create(final Map<String, String> uris) {
+                        assertThat(uris.get("metric"), is(metricUri.getUri()));
+                        return definition;
+                    }
+                }, "metric")
+                .add("dependent", mock(ObjFactory.class), "failing"));
+
+        assertThat(result.getUris().get("metric"), is(metricUri.getUri()));
+        assertThat(result.getUris().get("definition"), is(definitionUri.getUri()));
+        assertThat(result.getFailures().keySet(), hasItems("failing", "dependent"));
+        assertThat(result.getFailures().get("failing"), is(instanceOf(ObjCreateException.class)));
+    }
+
     @Test
     public void testUpdateObj() throws Exception {
         final Updatable obj = mock(Updatable.class);
@@ -104,6 +175,18 @@ public class MetadataServiceTest {
         assertThat(result, is(notNullValue()));
     }
 
+
+    @Test
+    public void testUpdateObjWithoutFetch() throws Exception {
+        final Updatable obj = mock(Updatable.class);
+        when(obj.getUri()).thenReturn(URI);
+
+        service.updateObjWithoutFetch(obj);
+
+        verify(restTemplate).put(URI, obj);
+        verify(restTemplate, never()).getForObject(URI, obj.getClass());
+    }
+
     @Test(expectedExceptions = ObjUpdateException.class)
     public void testUpdateObjNotFound() throws Exception {
         final Updatable obj = mock(Updatable.class);
@@ -155,6 +238,167 @@ public class MetadataServiceTest {
         assertThat(result, is(resultObj));
     }
 
+
+    @Test
+    public void testGetObjByUriCached() throws Exception {
+        final MetadataService cachingService = new MetadataService(restTemplate,
+                new MetadataCache(10, 1, TimeUnit.MINUTES));
+        final Metric metric = readObjectFromResource("/md/metric.json", Metric.class);
+        final String uri = metric.getUri();
+        when(restTemplate.getForObject(uri, Metric.class)).thenReturn(metric);
+
+        final Metric first = cachingService.getObjByUri(uri, Metric.class);
+        final Metric second = cachingService.getObjByUri(uri, Metric.class);
+        assertThat(first, is(sameInstance(metric)));
+        assertThat(second, is(not(sameInstance(metric))));
+        assertThat(second.getTitle(), is(metric.getTitle()));
+        verify(restTemplate, times(1)).getForObject(uri, Metric.class);
+
+        second.setTitle("changed");
+        assertThat(cachingService.getObjByUri(uri, Metric.class).getTitle(), is(metric.getTitle()));
+
+        cachingService.updateObj(second);
+        verify(restTemplate, times(2)).getForObject(uri, Metric.class);
+
+        cachingService.removeObjByUri(uri);
+        assertThat(cachingService.getCache().getStats().getSize(), is(0));
+    }
+
+
+    @Test
+    public void testIdentifiersToUrisChunkedAndCached() throws Exception {
+        final MetadataService cachingService = new MetadataService(restTemplate,
+                new MetadataCache(2000, 1, TimeUnit.MINUTES));
+        when(restTemplate.postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID))).thenAnswer(new Answer<IdentifiersAndUris>() {
+            @Override
+            public IdentifiersAndUris answer(final InvocationOnMock invocation) throws Throwable {
+                final List<IdentifierAndUri> result = new ArrayList<>();
+                for (String id : ((IdentifierToUri) invocation.getArguments()[1]).getIdentifierToUri()) {
+                    result.add(new IdentifierAndUri(id, "/gdc/md/" + PROJECT_ID + "/obj/" + id));
+                }
+                return new IdentifiersAndUris(result);
+            }
+        });
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2 * MetadataService.IDENTIFIERS_CHUNK_SIZE + 1; i++) {
+            ids.add("id" + i);
+        }
+
+        final Map<String, String> uris = cachingService.identifiersToUris(project, ids);
+        assertThat(uris.size(), is(ids.size()));
+        assertThat(uris.get("id7"), is("/gdc/md/" + PROJECT_ID + "/obj/id7"));
+        verify(restTemplate, times(3)).postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID));
+
+        assertThat(cachingService.findUris(project, Restriction.identifier("id2"), Restriction.identifier("id1")),
+                contains("/gdc/md/" + PROJECT_ID + "/obj/id2", "/gdc/md/" + PROJECT_ID + "/obj/id1"));
+        verify(restTemplate, times(3)).postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID));
+
+        cachingService.getCache().invalidate("/gdc/md/" + PROJECT_ID + "/obj/id1");
+        cachingService.identifiersToUris(project, asList("id1", "id2"));
+        verify(restTemplate).postForObject(IdentifiersAndUris.URI, new IdentifierToUri(asList("id1")),
+                IdentifiersAndUris.class, PROJECT_ID);
+    }
+
+
+    @Test
+    public void testConcurrentRequestsUseExecutorOfScheduler() throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                executed.incrementAndGet();
+                command.run();
+            }
+        });
+        final MetadataService scheduledService = new MetadataService(restTemplate,
+                MetadataCache.disabled(), new PollScheduler(settings));
+        when(restTemplate.postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID)))
+                .thenReturn(new IdentifiersAndUris(Collections.<IdentifierAndUri>emptyList()));
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < MetadataService.IDENTIFIERS_CHUNK_SIZE + 1; i++) {
+            ids.add("id" + i);
+        }
+
+        scheduledService.identifiersToUris(project, ids);
+
+        assertThat(executed.get(), is(2));
+    }
+
+
+    @Test
+    public void testConcurrentRequestsFromThreadOfExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final GoodDataSettings settings = new GoodDataSettings();
+        settings.setAsyncExecutor(executor);
+        final MetadataService scheduledService = new MetadataService(restTemplate,
+                MetadataCache.disabled(), new PollScheduler(settings));
+        when(restTemplate.postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID)))
+                .thenReturn(new IdentifiersAndUris(Collections.<IdentifierAndUri>emptyList()));
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < MetadataService.IDENTIFIERS_CHUNK_SIZE * 3; i++) {
+            ids.add("id" + i);
+        }
+
+        try {
+            executor.submit(new Callable<Map<String, String>>() {
+                @Override
+                public Map<String, String> call() {
+                    return scheduledService.identifiersToUris(project, ids);
+                }
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(restTemplate, times(3)).postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID));
+    }
+
+
+    @Test
+    public void testGetDependencyGraph() throws Exception {
+        final List<String> attributes = new ArrayList<>();
+        for (int i = 0; i < MetadataService.USEDBY_BATCH_SIZE + 1; i++) {
+            attributes.add("attr" + i);
+        }
+        final Entry report = mock(Entry.class);
+        when(report.getLink()).thenReturn("report");
+        final Entry dashboard = mock(Entry.class);
+        when(dashboard.getLink()).thenReturn("dashboard");
+        when(restTemplate.postForObject(eq(InUseMany.USEDBY_URI), any(InUseMany.class), eq(UseMany.class),
+                eq(PROJECT_ID))).thenAnswer(new Answer<UseMany>() {
+            @Override
+            public UseMany answer(final InvocationOnMock invocation) throws Throwable {
+                final List<UseManyEntries> result = new ArrayList<>();
+                for (String uri : ((InUseMany) invocation.getArguments()[1]).getUris()) {
+                    if (uri.startsWith("attr")) {
+                        result.add(new UseManyEntries(uri, asList(report)));
+                    } else if (uri.equals("report")) {
+                        result.add(new UseManyEntries(uri, asList(dashboard)));
+                    } else {
+                        result.add(new UseManyEntries(uri, Collections.<Entry>emptyList()));
+                    }
+                }
+                return new UseMany(result);
+            }
+        });
+
+        final DependencyGraph graph = service.getDependencyGraph(project, attributes);
+
+        assertThat(graph.size(), is(attributes.size() + 2));
+        assertThat(graph.getEntry("report"), is(report));
+        assertThat(graph.getUsing("report"), hasSize(attributes.size()));
+        assertThat(graph.getImpact("attr0"), contains("report", "dashboard"));
+        verify(restTemplate, times(4)).postForObject(eq(InUseMany.USEDBY_URI), any(InUseMany.class),
+                eq(UseMany.class), eq(PROJECT_ID));
+    }
+
     @Test(expectedExceptions = GoodDataException.class)
     public void testGetObjByUriWithClientSideHTTPError() throws Exception {
         when(restTemplate.getForObject(URI, Obj.class)).thenThrow(new RestClientException(""));
@@ -242,6 +486,28 @@ public class MetadataServiceTest {
         assertThat(result, is(uri));
     }
 
+
+    @Test
+    public void testFindReusesCachedQuery() throws Exception {
+        final MetadataService cachingService = new MetadataService(restTemplate,
+                new MetadataCache(10, 1, TimeUnit.MINUTES));
+        final Query queryResult = mock(Query.class);
+        final Entry resultEntry = mock(Entry.class);
+        when(restTemplate.getForObject(Query.URI, Query.class, project.getId(), "queryable")).thenReturn(queryResult);
+        when(queryResult.getEntries()).thenReturn(asList(resultEntry));
+        when(resultEntry.getTitle()).thenReturn("title");
+        when(resultEntry.getIdentifier()).thenReturn("id");
+
+        assertThat(cachingService.find(project, Queryable.class, Restriction.title("title"),
+                Restriction.identifier("id")), hasSize(1));
+        assertThat(cachingService.find(project, Queryable.class, Restriction.identifier("id")), hasSize(1));
+        verify(restTemplate, times(1)).getForObject(Query.URI, Query.class, project.getId(), "queryable");
+
+        cachingService.getCache().flush(project);
+        cachingService.find(project, Queryable.class);
+        verify(restTemplate, times(2)).getForObject(Query.URI, Query.class, project.getId(), "queryable");
+    }
+
     @Test(expectedExceptions = NonUniqueObjException.class)
     public void testGetObjUriMoreThanOneResult() throws Exception {
         final Query queryResult = mock(Query.class);
@@ -369,4 +635,46 @@ public class MetadataServiceTest {
         assertThat(elements, allOf(hasItem(result1), hasItem(result2)));
     }
 
+
+    @Test
+    public void testListAllAttributeElementsReplacesParamsOfElementsLink() throws Exception {
+        final DisplayForm displayForm = mock(DisplayForm.class);
+        when(displayForm.getElementsLink())
+                .thenReturn("/gdc/md/" + PROJECT_ID + "/obj/DF/elements?limit=10&offset=5&filter=old");
+        when(restTemplate.getForObject(any(java.net.URI.class), eq(AttributeElements.class)))
+                .thenReturn(new AttributeElements(Collections.<AttributeElement>emptyList()));
+
+        final Iterator<AttributeElement> elements = service.listAllAttributeElements(displayForm, "116",
+                new PageRequest(0, 2)).iterator();
+
+        assertThat(elements.hasNext(), is(false));
+        final ArgumentCaptor<java.net.URI> uri = ArgumentCaptor.forClass(java.net.URI.class);
+        verify(restTemplate).getForObject(uri.capture(), eq(AttributeElements.class));
+        final MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(uri.getValue()).build()
+                .getQueryParams();
+        assertThat(params.get("filter"), contains("116"));
+        assertThat(params.get("offset"), contains("0"));
+        assertThat(params.get("limit"), contains("2"));
+    }
+
+    @Test
+    public void testGetAttributeElementDictionaryCached() throws Exception {
+        final MetadataService cachingService = new MetadataService(restTemplate,
+                new MetadataCache(10, 1, TimeUnit.MINUTES));
+        final DisplayForm displayForm = mock(DisplayForm.class);
+        when(displayForm.getUri()).thenReturn("/gdc/md/" + PROJECT_ID + "/obj/DF");
+        when(displayForm.getElementsLink()).thenReturn("/gdc/md/" + PROJECT_ID + "/obj/DF/elements");
+        final AttributeElement element = mock(AttributeElement.class);
+        when(element.getUri()).thenReturn("/gdc/md/" + PROJECT_ID + "/obj/DF/elements?id=42");
+        when(element.getTitle()).thenReturn("title");
+        when(restTemplate.getForObject(any(java.net.URI.class), eq(AttributeElements.class)))
+                .thenReturn(new AttributeElements(asList(element)));
+
+        final AttributeElementDictionary dictionary = cachingService.getAttributeElementDictionary(displayForm, false);
+
+        assertThat(dictionary.getUri("title"), is("/gdc/md/" + PROJECT_ID + "/obj/DF/elements?id=42"));
+        assertThat(cachingService.getAttributeElementDictionary(displayForm, false), is(sameInstance(dictionary)));
+        verify(restTemplate, times(1)).getForObject(any(java.net.URI.class), eq(AttributeElements.class));
+    }
+
 }
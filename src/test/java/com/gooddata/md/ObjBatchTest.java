@@ -0,0 +1,60 @@
+package com.gooddata.md;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.mock;
+
+public class ObjBatchTest {
+
+    @Test
+    public void shouldSortToLevels() throws Exception {
+        final ObjFactory factory = mock(ObjFactory.class);
+        final ObjBatch batch = new ObjBatch()
+                .add("report", factory, "definition")
+                .add("definition", factory, "metric1", "metric2")
+                .add("metric1", mock(Obj.class))
+                .add("metric2", factory, "metric1");
+
+        final List<List<String>> levels = batch.getLevels();
+
+        assertThat(levels, hasSize(4));
+        assertThat(levels.get(0), contains("metric1"));
+        assertThat(levels.get(1), contains("metric2"));
+        assertThat(levels.get(2), contains("definition"));
+        assertThat(levels.get(3), contains("report"));
+    }
+
+    @Test
+    public void shouldPutIndependentObjectsToSameLevel() throws Exception {
+        final ObjBatch batch = new ObjBatch()
+                .add("metric1", mock(Obj.class))
+                .add("metric2", mock(Obj.class));
+
+        assertThat(batch.getLevels(), contains(containsInAnyOrder("metric1", "metric2")));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnCycle() throws Exception {
+        final ObjFactory factory = mock(ObjFactory.class);
+        new ObjBatch()
+                .add("a", factory, "b")
+                .add("b", factory, "a")
+                .getLevels();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnUnknownDependency() throws Exception {
+        new ObjBatch().add("a", mock(ObjFactory.class), "b").getLevels();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnDuplicateKey() throws Exception {
+        new ObjBatch().add("a", mock(Obj.class)).add("a", mock(Obj.class));
+    }
+}
@@ -0,0 +1,71 @@
+package com.gooddata.md;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class QueryIndexTest {
+
+    private Entry first;
+    private Entry second;
+    private Entry third;
+    private QueryIndex index;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        first = entry("/obj/1", "id1", "Title", "summary", "tag1 tag2");
+        second = entry("/obj/2", "id2", "Title", null, "tag2");
+        third = entry("/obj/3", "id3", "Other", "summary", null);
+        index = new QueryIndex(asList(first, second, third));
+    }
+
+    @Test
+    public void shouldFindAllWithoutRestrictions() throws Exception {
+        assertThat(index.find(), contains(first, second, third));
+    }
+
+    @Test
+    public void shouldFindEachEntryOnceInQueryOrder() throws Exception {
+        assertThat(index.find(Restriction.identifier("id3"), Restriction.title("Title"), Restriction.summary("summary")),
+                contains(first, second, third));
+    }
+
+    @Test
+    public void shouldFindByTag() throws Exception {
+        assertThat(index.find(Restriction.tag("tag2")), contains(first, second));
+        assertThat(index.find(Restriction.tag("tag1")), contains(first));
+    }
+
+    @Test
+    public void shouldFindNothing() throws Exception {
+        assertThat(index.find(Restriction.identifier("unknown")), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnModifiableCopy() throws Exception {
+        index.find().clear();
+
+        assertThat(index.find(), contains(first, second, third));
+    }
+
+    @Test
+    public void shouldMatchSameAsFind() throws Exception {
+        final Restriction[] restrictions = {Restriction.tag("tag1"), Restriction.summary("summary")};
+
+        assertThat(QueryIndex.matches(first, restrictions), is(true));
+        assertThat(QueryIndex.matches(second, restrictions), is(false));
+        assertThat(QueryIndex.matches(third, restrictions), is(true));
+        assertThat(QueryIndex.matches(second), is(true));
+        assertThat(index.find(restrictions), contains(first, third));
+    }
+
+    private static Entry entry(final String link, final String identifier, final String title, final String summary,
+                               final String tags) {
+        return new Entry(link, title, summary, null, null, null, false, identifier, tags, null, null, false, false);
+    }
+}
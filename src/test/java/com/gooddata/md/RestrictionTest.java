@@ -34,4 +34,13 @@ public class RestrictionTest {
         assertThat(id.getType(), is(Restriction.Type.SUMMARY));
         assertThat(id.getValue(), is("my summary"));
     }
+
+
+    @Test
+    public void testTag() throws Exception {
+        final Restriction id = Restriction.tag("my_tag");
+        assertThat(id, is(notNullValue()));
+        assertThat(id.getType(), is(Restriction.Type.TAG));
+        assertThat(id.getValue(), is("my_tag"));
+    }
 }
\ No newline at end of file
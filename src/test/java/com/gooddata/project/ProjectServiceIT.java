@@ -2,6 +2,7 @@ package com.gooddata.project;
 
 import com.gooddata.AbstractGoodDataIT;
 import com.gooddata.GoodDataException;
+import com.gooddata.ItemCallback;
 import com.gooddata.collections.PageRequest;
 import com.gooddata.gdc.AsyncTask;
 import com.gooddata.gdc.FeatureFlag;
@@ -25,9 +26,11 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("deprecation")
 public class ProjectServiceIT extends AbstractGoodDataIT {
@@ -73,6 +76,29 @@ public class ProjectServiceIT extends AbstractGoodDataIT {
         assertThat(project.getTitle(), is("TITLE"));
     }
 
+    @Test
+    public void shouldCreateProjectAsync() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo(Projects.URI)
+                .respond()
+                .withBody(MAPPER.writeValueAsString(new UriResponse(PROJECT_URI)))
+                .withStatus(202)
+        ;
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(PROJECT_URI)
+            .respond()
+                .withBody(MAPPER.writeValueAsString(enabled))
+                .withStatus(200)
+        ;
+
+        final Project project = gd.getProjectService().createProjectAsync(new Project("TITLE", "AUTH_TOKEN"))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(project, is(notNullValue()));
+        assertThat(project.getTitle(), is("TITLE"));
+    }
+
     @Test(expectedExceptions = GoodDataException.class)
     public void shouldFailWhenPostFails() throws Exception {
         onRequest()
@@ -322,6 +348,62 @@ public class ProjectServiceIT extends AbstractGoodDataIT {
         assertThat(secondPage, empty());
     }
 
+    @Test
+    public void shouldListAllUsers() throws Exception {
+        final String usersUri = Users.TEMPLATE.expand("PROJECT_ID").toString();
+        final String users = readStringFromResource("/project/project-users.json");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(usersUri)
+        .respond()
+                .withBody(users.substring(0, users.lastIndexOf('}'))
+                        + ", \"paging\": {\"offset\": \"0\", \"next\": \"" + usersUri + "?offset=1&limit=1\"}}")
+                .withStatus(200);
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(usersUri)
+                .havingQueryStringEqualTo("offset=1&limit=1")
+        .respond()
+                .withBody(users)
+                .withStatus(200);
+
+        final List<User> all = new ArrayList<>();
+        for (User user : gd.getProjectService().listAllUsers(enabled)) {
+            all.add(user);
+        }
+        assertThat(all, hasSize(2));
+    }
+
+    @Test
+    public void shouldStreamAllUsers() throws Exception {
+        final String usersUri = Users.TEMPLATE.expand("PROJECT_ID").toString();
+        final String users = readStringFromResource("/project/project-users.json");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(usersUri)
+        .respond()
+                .withBody(users.substring(0, users.lastIndexOf('}'))
+                        + ", \"paging\": {\"offset\": \"0\", \"next\": \"" + usersUri + "?offset=1&limit=1\"}}")
+                .withStatus(200);
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(usersUri)
+                .havingQueryStringEqualTo("offset=1&limit=1")
+        .respond()
+                .withBody(users)
+                .withStatus(200);
+
+        final List<User> all = new ArrayList<>();
+        gd.getProjectService().forEachUser(enabled, new ItemCallback<User>() {
+            @Override
+            public void onItem(final User user) {
+                all.add(user);
+            }
+        });
+        assertThat(all, hasSize(2));
+        assertThat(all.get(0).getLogin(), is("ateam+ads-testing@gooddata.com"));
+    }
+
     @Test
     public void shouldListAggregatedFeatureFlags() throws Exception {
         onRequest()
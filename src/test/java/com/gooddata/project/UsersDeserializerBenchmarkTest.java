@@ -0,0 +1,100 @@
+package com.gooddata.project;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gooddata.collections.Paging;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.ResourceUtils.readFromResource;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Compares reading a large page of users by the streaming {@link com.gooddata.collections.PageableListDeserializer}
+ * with reading it through the JSON tree, the way the deserializer worked before.
+ */
+public class UsersDeserializerBenchmarkTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int USERS = 5000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 10;
+
+    private byte[] json;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        final JsonNode user = MAPPER.readTree(readFromResource("/project/project-users.json")).get("users").get(0);
+        final ObjectNode root = MAPPER.createObjectNode();
+        final ArrayNode users = root.putArray("users");
+        for (int i = 0; i < USERS; i++) {
+            final ObjectNode copy = user.deepCopy();
+            ((ObjectNode) copy.get("user").get("content")).put("login", "user" + i + "@gooddata.com");
+            users.add(copy);
+        }
+        root.putObject("paging").put("offset", "0").put("count", String.valueOf(USERS)).put("next", "/next");
+        json = MAPPER.writeValueAsBytes(root);
+    }
+
+    @Test
+    public void streamingShouldBeFasterThanTree() throws Exception {
+        final Users streamed = readStreaming();
+        final Users tree = readTree();
+        assertThat(streamed.size(), is(USERS));
+        assertThat(tree.size(), is(USERS));
+        assertThat(streamed.get(USERS - 1).getLogin(), is(tree.get(USERS - 1).getLogin()));
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readStreaming();
+            readTree();
+        }
+        long streamingNanos = 0;
+        long treeNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            readStreaming();
+            streamingNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            readTree();
+            treeNanos += System.nanoTime() - start;
+        }
+        System.out.printf("Page of %d users: streaming %.1f ms/op, tree %.1f ms/op%n", USERS,
+                streamingNanos / 1e6 / ITERATIONS, treeNanos / 1e6 / ITERATIONS);
+        assertThat(streamingNanos, is(lessThan(treeNanos)));
+    }
+
+    private Users readStreaming() throws IOException {
+        return MAPPER.readValue(json, Users.class);
+    }
+
+    /**
+     * The former implementation, building the tree of the whole page and binding the items from it
+     */
+    private Users readTree() throws IOException {
+        final JsonNode root = MAPPER.readTree(json);
+        final JsonNode pagingNode = root.get("paging");
+        final Paging paging = pagingNode == null ? null : MAPPER.treeToValue(pagingNode, Paging.class);
+        final JsonNode linksNode = root.get("links");
+        if (linksNode != null) {
+            MAPPER.readerFor(new TypeReference<Map<String, String>>() {}).readValue(linksNode);
+        }
+        final JsonNode itemsNode = root.get("users");
+        final ObjectReader itemReader = MAPPER.readerFor(User.class);
+        final List<User> items = new ArrayList<>(itemsNode.size());
+        for (JsonNode item : itemsNode) {
+            items.add(itemReader.<User>readValue(item));
+        }
+        return new Users(items, paging);
+    }
+}
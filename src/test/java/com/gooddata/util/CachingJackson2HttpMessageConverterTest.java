@@ -0,0 +1,137 @@
+package com.gooddata.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gooddata.gdc.TaskStatus;
+import com.gooddata.gdc.UriResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.gooddata.util.ResourceUtils.readFromResource;
+import static com.gooddata.util.ResourceUtils.readStringFromResource;
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.Matchers.typeCompatibleWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CachingJackson2HttpMessageConverterTest {
+
+    private ObjectMapper mapper;
+    private CachingJackson2HttpMessageConverter converter;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        converter = new CachingJackson2HttpMessageConverter(mapper);
+    }
+
+    @Test
+    public void shouldCacheReadersAndWriters() throws Exception {
+        assertThat(converter.getObjectMapper(), is(sameInstance(mapper)));
+        assertThat(converter.getReader(TaskStatus.class), is(sameInstance(converter.getReader(TaskStatus.class))));
+        assertThat(converter.getWriter(TaskStatus.class), is(sameInstance(converter.getWriter(TaskStatus.class))));
+    }
+
+    @Test
+    public void shouldRead() throws Exception {
+        final HttpInputMessage input = mock(HttpInputMessage.class);
+        when(input.getHeaders()).thenReturn(new HttpHeaders());
+        when(input.getBody()).thenReturn(readFromResource("/gdc/task-status.json"));
+
+        final TaskStatus status = (TaskStatus) converter.read(TaskStatus.class, input);
+
+        assertThat(status.getStatus(), is("OK"));
+        assertThat(status.getPollUri(), is("/gdc/md/PROJECT_ID/tasks/TASK_ID/status"));
+    }
+
+    @Test
+    public void shouldUseCachedReaderForRestTemplateResponses() throws Exception {
+        final List<JavaType> readTypes = new ArrayList<>();
+        final CachingJackson2HttpMessageConverter recording = new CachingJackson2HttpMessageConverter(mapper) {
+            @Override
+            public ObjectReader getReader(final JavaType type) {
+                readTypes.add(type);
+                return super.getReader(type);
+            }
+        };
+        final ClientHttpResponse response = mock(ClientHttpResponse.class);
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(readFromResource("/gdc/task-status.json"));
+
+        final TaskStatus status = new HttpMessageConverterExtractor<>(TaskStatus.class,
+                Collections.<HttpMessageConverter<?>>singletonList(recording)).extractData(response);
+
+        assertThat(status.getStatus(), is("OK"));
+        assertThat(readTypes, hasSize(1));
+        assertThat(readTypes.get(0).getRawClass(), is(typeCompatibleWith(TaskStatus.class)));
+    }
+
+    @Test
+    public void shouldWritePrefixedPrettyPrinted() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final HttpOutputMessage output = mock(HttpOutputMessage.class);
+        when(output.getHeaders()).thenReturn(new HttpHeaders());
+        when(output.getBody()).thenReturn(body);
+        converter.setPrefixJson(true);
+        converter.setPrettyPrint(true);
+
+        converter.write(new UriResponse("URI"), MediaType.APPLICATION_JSON, output);
+
+        final String json = body.toString("UTF-8");
+        assertThat(json, startsWith("{} && {" + System.getProperty("line.separator")));
+        assertThat(json.substring("{} && ".length()), jsonEquals(readStringFromResource("/gdc/uriResponse.json")));
+    }
+
+    @Test
+    public void shouldWrite() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final HttpOutputMessage output = mock(HttpOutputMessage.class);
+        when(output.getHeaders()).thenReturn(new HttpHeaders());
+        when(output.getBody()).thenReturn(body);
+
+        converter.write(new UriResponse("URI"), MediaType.APPLICATION_JSON, output);
+
+        assertThat(body.toString("UTF-8"), jsonEquals(readStringFromResource("/gdc/uriResponse.json")));
+    }
+
+    @Test
+    public void shouldUseReplacedMapper() throws Exception {
+        final ObjectReader reader = converter.getReader(TaskStatus.class);
+        final ObjectMapper replaced = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        converter.setObjectMapper(replaced);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final HttpOutputMessage output = mock(HttpOutputMessage.class);
+        when(output.getHeaders()).thenReturn(new HttpHeaders());
+        when(output.getBody()).thenReturn(body);
+
+        converter.write(new UriResponse("URI"), MediaType.APPLICATION_JSON, output);
+
+        assertThat(converter.getObjectMapper(), is(sameInstance(replaced)));
+        assertThat(converter.getReader(TaskStatus.class), is(not(sameInstance(reader))));
+        assertThat(body.toString("UTF-8"), startsWith("{" + System.getProperty("line.separator")));
+    }
+}